@@ -0,0 +1,386 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The shortest distance between every ordered pair of vertices of a
+ * CompactGraph, kept in one flat V * V int matrix: the distance from u to v
+ * is at index u * V + v. Integer.MAX_VALUE stands for unreachable pairs, as
+ * in {@link GraphAlgorithms#dijkstras(Vertex, Graph)}. Edge weights are
+ * assumed to be non-negative. A shortest path of Integer.MAX_VALUE or more
+ * could not be told apart from an unreachable pair, so both algorithms
+ * throw an ArithmeticException if one exists.
+ *
+ * {@link #floydWarshall(CompactGraph, ForkJoinPool)} runs Floyd-Warshall
+ * over tiles of {@link #TILE} by {@link #TILE} entries. Every round first
+ * closes the tile on the diagonal, then the other tiles of its row and
+ * column, which only depend on the diagonal tile, and then all remaining
+ * tiles, which only depend on the row and column, so the tiles of each of
+ * the last two steps are updated in parallel and every update works on three
+ * tiles that fit in cache together.
+ * {@link #repeatedDijkstra(CompactGraph, ForkJoinPool)} runs a
+ * {@link Dijkstra} search from every source in parallel, which does
+ * O(V * E log V) work instead of O(V^3) and so wins on sparse graphs.
+ * {@link #of(CompactGraph, ForkJoinPool)} picks between them by density.
+ *
+ * @param <T> the generic typing of the data
+ */
+public final class AllPairsShortestPaths<T> {
+
+    /**
+     * Distance of pairs with no path between them.
+     */
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    /**
+     * The side of a Floyd-Warshall tile; three tiles of ints fill 48 KB.
+     */
+    private static final int TILE = 64;
+
+    /**
+     * At or above this ratio of edges to V * (V - 1),
+     * {@link #of(CompactGraph, ForkJoinPool)} uses Floyd-Warshall.
+     */
+    private static final double FLOYD_WARSHALL_DENSITY = 0.25;
+
+    /**
+     * The most vertices a graph may have, so that its matrix fits in one
+     * array.
+     */
+    private static final int MAX_VERTICES = 46340;
+
+    private final CompactGraph<T> graph;
+    private final int[] distances;
+
+    /**
+     * Wraps a finished distance matrix. The matrix is not copied.
+     *
+     * @param graph     the graph that was searched
+     * @param distances the distance matrix
+     */
+    private AllPairsShortestPaths(CompactGraph<T> graph, int[] distances) {
+        this.graph = graph;
+        this.distances = distances;
+    }
+
+    /**
+     * Finds all shortest distances of a graph on the common pool, picking
+     * the algorithm by density.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the graph to search
+     * @return the distances between all pairs of vertices
+     * @throws IllegalArgumentException if the graph is null or has more
+     *                                  than 46340 vertices
+     */
+    public static <T> AllPairsShortestPaths<T> of(CompactGraph<T> graph) {
+        return of(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Finds all shortest distances of a graph, with Floyd-Warshall if at
+     * least 25% of all possible edges exist and with repeated Dijkstra
+     * otherwise.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the graph to search
+     * @param pool  the pool to run on
+     * @return the distances between all pairs of vertices
+     * @throws IllegalArgumentException if any input is null or the graph
+     *                                  has more than 46340 vertices
+     */
+    public static <T> AllPairsShortestPaths<T> of(CompactGraph<T> graph,
+        ForkJoinPool pool) {
+        checkInputs(graph, pool);
+        long vertexCount = graph.getVertexCount();
+        double density = graph.getEdgeCount()
+            / ((double) vertexCount * (vertexCount - 1));
+        if (vertexCount > 1 && density >= FLOYD_WARSHALL_DENSITY) {
+            return floydWarshall(graph, pool);
+        }
+        return repeatedDijkstra(graph, pool);
+    }
+
+    /**
+     * Finds all shortest distances of a graph with tiled Floyd-Warshall.
+     * Sums of two entries that overflow an int are dropped and noted; only
+     * if one was noted does a breadth first search from every vertex check
+     * that no reachable pair was left at {@link #UNREACHABLE}.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the graph to search
+     * @param pool  the pool to update tiles on
+     * @return the distances between all pairs of vertices
+     * @throws IllegalArgumentException if any input is null or the graph
+     *                                  has more than 46340 vertices
+     * @throws ArithmeticException if a shortest path length does not fit
+     *                             below {@link #UNREACHABLE}
+     */
+    public static <T> AllPairsShortestPaths<T> floydWarshall(
+        CompactGraph<T> graph, ForkJoinPool pool) {
+        checkInputs(graph, pool);
+        int n = graph.getVertexCount();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getWeights();
+        int[] d = new int[n * n];
+        AtomicBoolean overflowed = new AtomicBoolean();
+        ParallelFor.forEach(pool, n, u -> {
+            int row = u * n;
+            for (int v = 0; v < n; v++) {
+                d[row + v] = UNREACHABLE;
+            }
+            d[row + u] = 0;
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                d[row + targets[e]] = Math.min(d[row + targets[e]],
+                    weights[e]);
+                if (weights[e] == UNREACHABLE) {
+                    overflowed.set(true);
+                }
+            }
+        }, TILE);
+
+        int tiles = (n + TILE - 1) / TILE;
+        for (int k = 0; k < tiles; k++) {
+            int kb = k;
+            if (relax(d, n, kb, kb, kb)) {
+                overflowed.set(true);
+            }
+            ParallelFor.forEach(pool, 2 * tiles, t -> {
+                int other = t >> 1;
+                if (other == kb) {
+                    return;
+                }
+                boolean overflow = (t & 1) == 0 ? relax(d, n, kb, other, kb)
+                    : relax(d, n, other, kb, kb);
+                if (overflow) {
+                    overflowed.set(true);
+                }
+            }, 1);
+            ParallelFor.forEach(pool, tiles * tiles, t -> {
+                int ib = t / tiles;
+                int jb = t % tiles;
+                if (ib != kb && jb != kb && relax(d, n, ib, jb, kb)) {
+                    overflowed.set(true);
+                }
+            }, 1);
+        }
+        if (overflowed.get()) {
+            checkReachable(graph, d, pool);
+        }
+        return new AllPairsShortestPaths<>(graph, d);
+    }
+
+    /**
+     * Finds all shortest distances of a graph by running Dijkstra's
+     * algorithm from every vertex in parallel.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the graph to search
+     * @param pool  the pool to run the searches on
+     * @return the distances between all pairs of vertices
+     * @throws IllegalArgumentException if any input is null or the graph
+     *                                  has more than 46340 vertices
+     * @throws ArithmeticException if a shortest path length does not fit
+     *                             below {@link #UNREACHABLE}
+     */
+    public static <T> AllPairsShortestPaths<T> repeatedDijkstra(
+        CompactGraph<T> graph, ForkJoinPool pool) {
+        checkInputs(graph, pool);
+        int n = graph.getVertexCount();
+        int[] d = new int[n * n];
+        ParallelFor.forEach(pool, n, u -> {
+            long[] row = Dijkstra.run(u, graph, IndexedDaryHeap.DEFAULT_ARITY)
+                .getDistances();
+            for (int v = 0; v < n; v++) {
+                if (row[v] == ShortestPaths.UNREACHABLE) {
+                    d[u * n + v] = UNREACHABLE;
+                } else if (row[v] < UNREACHABLE) {
+                    d[u * n + v] = (int) row[v];
+                } else {
+                    throw tooLong(u, v);
+                }
+            }
+        }, 1);
+        return new AllPairsShortestPaths<>(graph, d);
+    }
+
+    /**
+     * Gets the graph that was searched.
+     *
+     * @return the graph
+     */
+    public CompactGraph<T> getGraph() {
+        return graph;
+    }
+
+    /**
+     * Gets the distance matrix. The distance from u to v is at index
+     * u * V + v.
+     *
+     * @return the matrix, of length V * V
+     */
+    public int[] getMatrix() {
+        return distances;
+    }
+
+    /**
+     * Gets the shortest distance between two vertex ids.
+     *
+     * @param u the id of the source
+     * @param v the id of the target
+     * @return the distance, or {@link #UNREACHABLE}
+     */
+    public int getDistance(int u, int v) {
+        return distances[u * graph.getVertexCount() + v];
+    }
+
+    /**
+     * Gets the shortest distance between two vertices.
+     *
+     * @param u the source
+     * @param v the target
+     * @return the distance, or {@link #UNREACHABLE}
+     * @throws IllegalArgumentException if either vertex is not in the graph
+     */
+    public int getDistance(Vertex<T> u, Vertex<T> v) {
+        int uId = graph.getId(u);
+        int vId = graph.getId(v);
+        if (uId < 0 || vId < 0) {
+            throw new IllegalArgumentException("The graph does not contain both vertices");
+        }
+        return getDistance(uId, vId);
+    }
+
+    /**
+     * Gets the shortest distances from a source in the form
+     * {@link GraphAlgorithms#dijkstras(Vertex, Graph)} returns them.
+     *
+     * @param source the source
+     * @return a map of the shortest distance to every vertex, with
+     * Integer.MAX_VALUE for unreachable vertices
+     * @throws IllegalArgumentException if the source is not in the graph
+     */
+    public Map<Vertex<T>, Integer> getDistances(Vertex<T> source) {
+        int id = graph.getId(source);
+        if (id < 0) {
+            throw new IllegalArgumentException("The graph does not contain the source");
+        }
+        int n = graph.getVertexCount();
+        Map<Vertex<T>, Integer> result = new HashMap<>(n * 4 / 3 + 1);
+        for (int v = 0; v < n; v++) {
+            result.put(graph.getVertex(v), distances[id * n + v]);
+        }
+        return result;
+    }
+
+    /**
+     * Relaxes a tile of the matrix through the intermediate vertices of
+     * tile kb, so d[i][j] = min(d[i][j], d[i][k] + d[k][j]) for i in row
+     * tile ib, j in column tile jb and k in tile kb. A sum of two reachable
+     * entries that does not fit below {@link #UNREACHABLE} is skipped.
+     *
+     * @param d  the distance matrix
+     * @param n  the number of vertices
+     * @param ib the row tile
+     * @param jb the column tile
+     * @param kb the tile of intermediate vertices
+     * @return true if a sum was skipped because it did not fit
+     */
+    private static boolean relax(int[] d, int n, int ib, int jb, int kb) {
+        int iEnd = Math.min(n, (ib + 1) * TILE);
+        int jStart = jb * TILE;
+        int jEnd = Math.min(n, jStart + TILE);
+        int kEnd = Math.min(n, (kb + 1) * TILE);
+        boolean overflow = false;
+        for (int k = kb * TILE; k < kEnd; k++) {
+            int kRow = k * n;
+            for (int i = ib * TILE; i < iEnd; i++) {
+                int iRow = i * n;
+                int dik = d[iRow + k];
+                if (dik == UNREACHABLE) {
+                    continue;
+                }
+                for (int j = jStart; j < jEnd; j++) {
+                    int dkj = d[kRow + j];
+                    int via = dik + dkj;
+                    if (via >= 0 && via < d[iRow + j]) {
+                        d[iRow + j] = via;
+                    } else if ((via < 0 || via == UNREACHABLE)
+                        && dkj != UNREACHABLE) {
+                        overflow = true;
+                    }
+                }
+            }
+        }
+        return overflow;
+    }
+
+    /**
+     * Checks that every pair left at {@link #UNREACHABLE} really has no
+     * path, with a breadth first search from every vertex.
+     *
+     * @param graph the graph that was searched
+     * @param d     the distance matrix
+     * @param pool  the pool to search on
+     * @throws ArithmeticException if a pair at {@link #UNREACHABLE} has a
+     *                             path
+     */
+    private static void checkReachable(CompactGraph<?> graph, int[] d,
+        ForkJoinPool pool) {
+        int n = graph.getVertexCount();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        ParallelFor.forEach(pool, n, u -> {
+            boolean[] visited = new boolean[n];
+            int[] queue = new int[n];
+            int head = 0;
+            int tail = 0;
+            visited[u] = true;
+            queue[tail++] = u;
+            while (head < tail) {
+                int curr = queue[head++];
+                if (d[u * n + curr] == UNREACHABLE) {
+                    throw tooLong(u, curr);
+                }
+                for (int e = offsets[curr]; e < offsets[curr + 1]; e++) {
+                    if (!visited[targets[e]]) {
+                        visited[targets[e]] = true;
+                        queue[tail++] = targets[e];
+                    }
+                }
+            }
+        }, 1);
+    }
+
+    /**
+     * Creates the exception for a shortest path that does not fit.
+     *
+     * @param u the id of the source
+     * @param v the id of the target
+     * @return the exception to throw
+     */
+    private static ArithmeticException tooLong(int u, int v) {
+        return new ArithmeticException("The shortest path from " + u + " to " + v
+            + " is Integer.MAX_VALUE or longer.");
+    }
+
+    /**
+     * Checks the inputs of a search.
+     *
+     * @param graph the graph to search
+     * @param pool  the pool to run on
+     * @throws IllegalArgumentException if any input is null or the graph
+     *                                  has more than 46340 vertices
+     */
+    private static void checkInputs(CompactGraph<?> graph, ForkJoinPool pool) {
+        if (graph == null || pool == null) {
+            throw new IllegalArgumentException("An input is null");
+        }
+        if (graph.getVertexCount() > MAX_VERTICES) {
+            throw new IllegalArgumentException("The distance matrix of " + graph.getVertexCount()
+                + " vertices does not fit in an array.");
+        }
+    }
+}
@@ -0,0 +1,311 @@
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Boruvka's algorithm for the Minimal Spanning Tree (MST) of a CompactGraph.
+ * Every round finds the cheapest edge leaving each component in parallel,
+ * adds all of them to the tree and contracts the components they join, so
+ * the number of components at least halves per round and at most log V
+ * rounds are needed.
+ *
+ * Edges are compared by weight, then by their smaller end id, then by their
+ * larger end id and last by edge index, so the order is total and no cycle
+ * can be picked in one round. The two directions of an edge differ only in
+ * index, so when both end components pick the same edge it joins them once.
+ * Every edge is offered to the components of both of its ends, and the
+ * cheapest edge of a component is lowered with a compare-and-set loop, so
+ * workers never lock. After each round the edges inside a component are
+ * dropped, so later rounds only scan edges that can still join two
+ * components.
+ *
+ * @param <T> the generic typing of the data
+ */
+public final class Boruvka<T> {
+
+    /**
+     * Ranges at most this long are handled by a single task.
+     */
+    private static final int GRAIN = 1 << 12;
+
+    /**
+     * Marks components without an outgoing edge.
+     */
+    private static final int NONE = -1;
+
+    private final int[] sources;
+    private final int[] targets;
+    private final int[] weights;
+
+    /**
+     * Creates the state of one run.
+     *
+     * @param graph the compact graph to span
+     */
+    private Boruvka(CompactGraph<T> graph) {
+        int[] offsets = graph.getOffsets();
+        targets = graph.getTargets();
+        weights = graph.getWeights();
+        sources = new int[graph.getEdgeCount()];
+        for (int u = 0; u < graph.getVertexCount(); u++) {
+            Arrays.fill(sources, offsets[u], offsets[u + 1], u);
+        }
+    }
+
+    /**
+     * Finds the MST of a compact graph on the common pool. The same
+     * assumptions as {@link GraphAlgorithms#kruskals(CompactGraph)} apply.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the compact graph to span
+     * @return the MST of the graph or null if there is no valid MST
+     * @throws IllegalArgumentException if the graph is null
+     */
+    public static <T> Set<Edge<T>> mst(CompactGraph<T> graph) {
+        return mst(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Finds the MST of a compact graph. The returned set contains both
+     * directions of every MST edge.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the compact graph to span
+     * @param pool  the pool to run the rounds on
+     * @return the MST of the graph or null if there is no valid MST
+     * @throws IllegalArgumentException if any input is null
+     */
+    public static <T> Set<Edge<T>> mst(CompactGraph<T> graph,
+        ForkJoinPool pool) {
+        if (graph == null || pool == null) {
+            throw new IllegalArgumentException("An input is null");
+        }
+        Boruvka<T> run = new Boruvka<>(graph);
+        int vertexCount = graph.getVertexCount();
+        int[] component = new int[vertexCount];
+        AtomicIntegerArray cheapest = new AtomicIntegerArray(vertexCount);
+        IntDisjointSet ds = new IntDisjointSet(vertexCount);
+        int[] live = new int[graph.getEdgeCount()];
+        for (int e = 0; e < live.length; e++) {
+            live[e] = e;
+        }
+
+        Set<Edge<T>> mst = new HashSet<>();
+        int accepted = 0;
+        pool.invoke(run.new Relabel(ds, component, cheapest, 0, vertexCount));
+        live = pool.invoke(run.new Live(component, live, 0, live.length));
+        while (live.length > 0 && accepted < vertexCount - 1) {
+            pool.invoke(run.new Cheapest(component, cheapest, live, 0,
+                live.length));
+            for (int c = 0; c < vertexCount; c++) {
+                int e = cheapest.get(c);
+                if (e != NONE && ds.union(run.sources[e], run.targets[e])) {
+                    accepted++;
+                    Vertex<T> u = graph.getVertex(run.sources[e]);
+                    Vertex<T> v = graph.getVertex(run.targets[e]);
+                    mst.add(new Edge<>(u, v, run.weights[e]));
+                    mst.add(new Edge<>(v, u, run.weights[e]));
+                }
+            }
+            pool.invoke(run.new Relabel(ds, component, cheapest, 0,
+                vertexCount));
+            live = pool.invoke(run.new Live(component, live, 0, live.length));
+        }
+        if (accepted < vertexCount - 1) {
+            return null;
+        }
+        return mst;
+    }
+
+    /**
+     * Checks if one edge is lighter than another, breaking weight ties by
+     * the smaller and then the larger end id, and then by edge index.
+     *
+     * @param a the first edge index
+     * @param b the second edge index
+     * @return true if a comes before b
+     */
+    private boolean lighter(int a, int b) {
+        if (weights[a] != weights[b]) {
+            return weights[a] < weights[b];
+        }
+        int aLow = Math.min(sources[a], targets[a]);
+        int bLow = Math.min(sources[b], targets[b]);
+        if (aLow != bLow) {
+            return aLow < bLow;
+        }
+        int aHigh = Math.max(sources[a], targets[a]);
+        int bHigh = Math.max(sources[b], targets[b]);
+        if (aHigh != bHigh) {
+            return aHigh < bHigh;
+        }
+        return a < b;
+    }
+
+    /**
+     * Points every vertex of a range at the root of its component and
+     * clears the cheapest edge of every component.
+     */
+    private final class Relabel extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final IntDisjointSet ds;
+        private final int[] component;
+        private final AtomicIntegerArray cheapest;
+        private final int lo;
+        private final int hi;
+
+        /**
+         * Creates a task over the vertex ids [lo, hi).
+         *
+         * @param ds        the components joined so far
+         * @param component the component of every vertex
+         * @param cheapest  the cheapest edge of every component
+         * @param lo        the first id to relabel
+         * @param hi        one past the last id to relabel
+         */
+        Relabel(IntDisjointSet ds, int[] component,
+            AtomicIntegerArray cheapest, int lo, int hi) {
+            this.ds = ds;
+            this.component = component;
+            this.cheapest = cheapest;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Relabel(ds, component, cheapest, lo, mid),
+                    new Relabel(ds, component, cheapest, mid, hi));
+                return;
+            }
+            for (int v = lo; v < hi; v++) {
+                component[v] = ds.root(v);
+                cheapest.set(v, NONE);
+            }
+        }
+    }
+
+    /**
+     * Lowers the cheapest edge of each component to the lightest of a range
+     * of live edges leaving it.
+     */
+    private final class Cheapest extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] component;
+        private final AtomicIntegerArray cheapest;
+        private final int[] edges;
+        private final int lo;
+        private final int hi;
+
+        /**
+         * Creates a task over edges[lo, hi).
+         *
+         * @param component the component of every vertex
+         * @param cheapest  the cheapest edge of every component
+         * @param edges     the live edge indices
+         * @param lo        the first position to scan
+         * @param hi        one past the last position to scan
+         */
+        Cheapest(int[] component, AtomicIntegerArray cheapest, int[] edges,
+            int lo, int hi) {
+            this.component = component;
+            this.cheapest = cheapest;
+            this.edges = edges;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Cheapest(component, cheapest, edges, lo, mid),
+                    new Cheapest(component, cheapest, edges, mid, hi));
+                return;
+            }
+            for (int i = lo; i < hi; i++) {
+                int e = edges[i];
+                lower(component[sources[e]], e);
+                lower(component[targets[e]], e);
+            }
+        }
+
+        /**
+         * Lowers the cheapest edge of a component to an edge if it is
+         * lighter.
+         *
+         * @param c the root of the component
+         * @param e the edge index
+         */
+        private void lower(int c, int e) {
+            int old = cheapest.get(c);
+            while ((old == NONE || lighter(e, old))
+                && !cheapest.compareAndSet(c, old, e)) {
+                old = cheapest.get(c);
+            }
+        }
+    }
+
+    /**
+     * Keeps the edges of a range whose ends are in different components.
+     */
+    private final class Live extends RecursiveTask<int[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] component;
+        private final int[] edges;
+        private final int lo;
+        private final int hi;
+
+        /**
+         * Creates a task over edges[lo, hi).
+         *
+         * @param component the component of every vertex
+         * @param edges     the edge indices to filter
+         * @param lo        the first position to filter
+         * @param hi        one past the last position to filter
+         */
+        Live(int[] component, int[] edges, int lo, int hi) {
+            this.component = component;
+            this.edges = edges;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                Live left = new Live(component, edges, lo, mid);
+                left.fork();
+                int[] right = new Live(component, edges, mid, hi).compute();
+                int[] leftResult = left.join();
+                int[] merged = Arrays.copyOf(leftResult,
+                    leftResult.length + right.length);
+                System.arraycopy(right, 0, merged, leftResult.length,
+                    right.length);
+                return merged;
+            }
+            int[] kept = new int[hi - lo];
+            int count = 0;
+            for (int i = lo; i < hi; i++) {
+                int e = edges[i];
+                if (component[sources[e]] != component[targets[e]]) {
+                    kept[count++] = e;
+                }
+            }
+            return count == kept.length ? kept : Arrays.copyOf(kept, count);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable directed graph stored in compressed sparse row (CSR) form.
+ * Every vertex is given a dense integer id in the range [0, V), and the
+ * outgoing edges of vertex {@code v} occupy the index range
+ * [offsets[v], offsets[v + 1]) of the targets and weights arrays.
+ *
+ * The out-edges of each vertex keep the order of the adjacency list of the
+ * graph they were built from, so traversals over a CompactGraph visit
+ * neighbors in the same order as traversals over the original Graph.
+ *
+ * The arrays returned by the getters are shared with the graph and must not
+ * be modified.
+ */
+public class CompactGraph<T> {
+
+    private final VertexIndex<T> index;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+    private volatile CompactGraph<T> transpose;
+
+    /**
+     * Builds the compact form of the given graph.
+     *
+     * @param graph the graph to compact
+     * @throws IllegalArgumentException if the graph is null
+     */
+    public CompactGraph(Graph<T> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph cannot be null.");
+        }
+        Map<Vertex<T>, List<VertexDistance<T>>> adjList = graph.getAdjList();
+        int vertexCount = graph.getVertices().size();
+        index = new VertexIndex<>(vertexCount);
+        for (Vertex<T> v : graph.getVertices()) {
+            index.add(v);
+        }
+
+        offsets = new int[vertexCount + 1];
+        for (int i = 0; i < vertexCount; i++) {
+            offsets[i + 1] = offsets[i] + adjList.get(index.getVertex(i)).size();
+        }
+        targets = new int[offsets[vertexCount]];
+        weights = new int[offsets[vertexCount]];
+        for (int i = 0; i < vertexCount; i++) {
+            int e = offsets[i];
+            for (VertexDistance<T> vd : adjList.get(index.getVertex(i))) {
+                targets[e] = index.getId(vd.getVertex());
+                weights[e] = vd.getDistance();
+                e++;
+            }
+        }
+    }
+
+    /**
+     * Wraps already built CSR arrays. The arrays are not copied.
+     *
+     * @param vertices the vertex of every id, in id order
+     * @param offsets the edge offsets, of length V + 1
+     * @param targets the target id of every edge
+     * @param weights the weight of every edge
+     * @throws IllegalArgumentException if a vertex is listed twice or the
+     *                                  offsets are not one per vertex plus one
+     */
+    CompactGraph(List<Vertex<T>> vertices, int[] offsets, int[] targets,
+        int[] weights) {
+        this(new VertexIndex<>(vertices), offsets, targets, weights);
+    }
+
+    /**
+     * Wraps already built CSR arrays over the ids of an index. Neither the
+     * index nor the arrays are copied, so the index must not grow
+     * afterwards.
+     *
+     * @param index the id of every vertex
+     * @param offsets the edge offsets, of length V + 1
+     * @param targets the target id of every edge
+     * @param weights the weight of every edge
+     * @throws IllegalArgumentException if the offsets are not one per vertex
+     *                                  of the index plus one
+     */
+    CompactGraph(VertexIndex<T> index, int[] offsets, int[] targets,
+        int[] weights) {
+        if (index.size() != offsets.length - 1) {
+            throw new IllegalArgumentException("The graph has " + (offsets.length - 1)
+                + " vertex ids but " + index.size() + " distinct vertices.");
+        }
+        this.index = index;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Gets the number of vertices.
+     *
+     * @return the number of vertices
+     */
+    public int getVertexCount() {
+        return index.size();
+    }
+
+    /**
+     * Gets the number of directed edges.
+     *
+     * @return the number of edges
+     */
+    public int getEdgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * Gets the id of a vertex.
+     *
+     * @param vertex the vertex to look up
+     * @return the id of the vertex, or -1 if it is not in the graph
+     */
+    public int getId(Vertex<T> vertex) {
+        return index.getId(vertex);
+    }
+
+    /**
+     * Gets the vertex with the given id.
+     *
+     * @param id the id of the vertex
+     * @return the vertex with that id
+     * @throws IndexOutOfBoundsException if the id is not in [0, V)
+     */
+    public Vertex<T> getVertex(int id) {
+        return index.getVertex(id);
+    }
+
+    /**
+     * Gets every vertex, indexed by id.
+     *
+     * @return an unmodifiable list of the vertices in id order
+     */
+    public List<Vertex<T>> getVertices() {
+        return index.asList();
+    }
+
+    /**
+     * Gets the index that maps the vertices of this graph to their ids, for
+     * building graphs over the same ids.
+     *
+     * @return the vertex index, which must not be added to
+     */
+    VertexIndex<T> getIndex() {
+        return index;
+    }
+
+    /**
+     * Gets the number of outgoing edges of a vertex.
+     *
+     * @param id the id of the vertex
+     * @return the out-degree of the vertex
+     */
+    public int getDegree(int id) {
+        return offsets[id + 1] - offsets[id];
+    }
+
+    /**
+     * Gets the edge offsets. The out-edges of vertex v are the edges in
+     * [offsets[v], offsets[v + 1]).
+     *
+     * @return the offsets array, of length V + 1
+     */
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    /**
+     * Gets the target vertex id of every edge.
+     *
+     * @return the targets array, of length E
+     */
+    public int[] getTargets() {
+        return targets;
+    }
+
+    /**
+     * Gets the weight of every edge.
+     *
+     * @return the weights array, of length E
+     */
+    public int[] getWeights() {
+        return weights;
+    }
+
+    /**
+     * Gets the transpose of this graph, which has the same vertex ids and
+     * every edge reversed. The in-edges of each vertex are ordered by source
+     * id. The transpose is built on first use and then cached.
+     *
+     * @return the transposed graph
+     */
+    public CompactGraph<T> transpose() {
+        CompactGraph<T> result = transpose;
+        if (result == null) {
+            int vertexCount = getVertexCount();
+            int[] reverseOffsets = new int[vertexCount + 1];
+            for (int target : targets) {
+                reverseOffsets[target + 1]++;
+            }
+            for (int i = 0; i < vertexCount; i++) {
+                reverseOffsets[i + 1] += reverseOffsets[i];
+            }
+            int[] cursor = Arrays.copyOf(reverseOffsets, vertexCount);
+            int[] reverseTargets = new int[targets.length];
+            int[] reverseWeights = new int[targets.length];
+            for (int u = 0; u < vertexCount; u++) {
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int slot = cursor[targets[e]]++;
+                    reverseTargets[slot] = u;
+                    reverseWeights[slot] = weights[e];
+                }
+            }
+            result = new CompactGraph<>(index, reverseOffsets,
+                reverseTargets, reverseWeights);
+            result.transpose = this;
+            transpose = result;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,140 @@
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A lock-free disjoint set over the int ids [0, n) that any number of threads
+ * may find, union and compare in at once (Jayanti and Tarjan).
+ *
+ * Roots are linked with a compare-and-set of their parent from themselves to
+ * the other root, so two unions can never both link the same root. Which root
+ * goes under which is fixed by a hashed priority of the ids instead of by
+ * rank or size, so linking needs no extra state and behaves like randomized
+ * linking while staying deterministic. find splits the path on the way up,
+ * pointing every node at its grandparent; those writes use a plain weak
+ * compare-and-set, since losing one only costs a little compression and a
+ * node's parent is only ever replaced by one of its ancestors.
+ */
+public class ConcurrentDisjointSet {
+
+    private final AtomicIntegerArray parent;
+
+    /**
+     * Creates n singleton sets.
+     *
+     * @param n the number of elements
+     * @throws IllegalArgumentException if n is negative
+     */
+    public ConcurrentDisjointSet(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("The number of elements cannot be negative.");
+        }
+        parent = new AtomicIntegerArray(n);
+        for (int i = 0; i < n; i++) {
+            parent.set(i, i);
+        }
+    }
+
+    /**
+     * Gets the number of elements.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        return parent.length();
+    }
+
+    /**
+     * Finds the root of the set containing x. The root may stop being a root
+     * as soon as this returns if another thread joins its set.
+     *
+     * @param x the element
+     * @return the root of its set
+     */
+    public int find(int x) {
+        int p = parent.get(x);
+        while (p != x) {
+            int grandparent = parent.get(p);
+            if (grandparent != p) {
+                parent.weakCompareAndSetPlain(x, p, grandparent);
+            }
+            x = p;
+            p = grandparent;
+        }
+        return x;
+    }
+
+    /**
+     * Joins the sets containing x and y.
+     *
+     * @param x the first element
+     * @param y the second element
+     * @return true if this call joined them, false if they were already in
+     * the same set
+     */
+    public boolean union(int x, int y) {
+        while (true) {
+            int xRoot = find(x);
+            int yRoot = find(y);
+            if (xRoot == yRoot) {
+                return false;
+            }
+            if (before(xRoot, yRoot)) {
+                int swap = xRoot;
+                xRoot = yRoot;
+                yRoot = swap;
+            }
+            if (parent.compareAndSet(yRoot, yRoot, xRoot)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Checks if two elements are in the same set. The answer is exact at
+     * some point during the call.
+     *
+     * @param x the first element
+     * @param y the second element
+     * @return true if they share a set
+     */
+    public boolean sameSet(int x, int y) {
+        while (true) {
+            int xRoot = find(x);
+            int yRoot = find(y);
+            if (xRoot == yRoot) {
+                return true;
+            }
+            if (parent.get(xRoot) == xRoot) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Checks if a root has a lower linking priority than another, so that it
+     * goes under the other when their sets are joined.
+     *
+     * @param a the first root
+     * @param b the second root
+     * @return true if a goes under b
+     */
+    private static boolean before(int a, int b) {
+        int aPriority = mix(a);
+        int bPriority = mix(b);
+        return aPriority != bPriority ? aPriority < bPriority : a < b;
+    }
+
+    /**
+     * Scrambles the bits of an id (the MurmurHash3 finalizer).
+     *
+     * @param x the id
+     * @return its hashed priority
+     */
+    private static int mix(int x) {
+        x ^= x >>> 16;
+        x *= 0x85ebca6b;
+        x ^= x >>> 13;
+        x *= 0xc2b2ae35;
+        x ^= x >>> 16;
+        return x;
+    }
+}
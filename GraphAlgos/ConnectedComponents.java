@@ -0,0 +1,265 @@
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * The connected components of an undirected CompactGraph, found in parallel
+ * with the Afforest form of Shiloach-Vishkin. The graph follows the
+ * convention of {@link GraphAlgorithms#kruskals(Graph)}: every undirected
+ * edge is stored in both directions.
+ *
+ * Every vertex starts as its own component, labelled with its own id. An
+ * edge is hooked by pointing the root of the component with the higher
+ * label at the other root with a compare-and-set, so roots are always the
+ * lowest id of their component and workers never lock. Pointer jumping then
+ * points every vertex straight at its root. Afforest first hooks only the
+ * first {@link #NEIGHBOR_ROUNDS} edges of every vertex, which on most graphs
+ * already joins the giant component, then samples which component is the
+ * largest and skips the remaining edges of its vertices entirely: since
+ * every edge is stored both ways, the other end hooks the edge if it needs
+ * to. The result is the same as hooking every edge.
+ *
+ * @param <T> the generic typing of the data
+ */
+public final class ConnectedComponents<T> {
+
+    /**
+     * Ranges at most this long are handled by a single task.
+     */
+    private static final int GRAIN = 1 << 12;
+
+    /**
+     * The number of leading edges of every vertex hooked before sampling.
+     */
+    private static final int NEIGHBOR_ROUNDS = 2;
+
+    /**
+     * The number of vertices sampled to guess the largest component.
+     */
+    private static final int SAMPLES = 1024;
+
+    private final CompactGraph<T> graph;
+    private final int[] labels;
+    private final int[] sizes;
+    private final int componentCount;
+
+    /**
+     * Counts the components of a labelling.
+     *
+     * @param graph  the graph the components are of
+     * @param labels the lowest vertex id of the component of every vertex
+     */
+    private ConnectedComponents(CompactGraph<T> graph, int[] labels) {
+        this.graph = graph;
+        this.labels = labels;
+        sizes = new int[labels.length];
+        int count = 0;
+        for (int v = 0; v < labels.length; v++) {
+            sizes[labels[v]]++;
+            if (labels[v] == v) {
+                count++;
+            }
+        }
+        componentCount = count;
+    }
+
+    /**
+     * Finds the connected components of a graph on the common pool.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the undirected graph to split
+     * @return the components of the graph
+     * @throws IllegalArgumentException if the graph is null
+     */
+    public static <T> ConnectedComponents<T> of(CompactGraph<T> graph) {
+        return of(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Finds the connected components of a graph.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the undirected graph to split
+     * @param pool  the pool to hook and compress on
+     * @return the components of the graph
+     * @throws IllegalArgumentException if any input is null
+     */
+    public static <T> ConnectedComponents<T> of(CompactGraph<T> graph,
+        ForkJoinPool pool) {
+        if (graph == null || pool == null) {
+            throw new IllegalArgumentException("An input is null");
+        }
+        int vertexCount = graph.getVertexCount();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        AtomicIntegerArray parent = new AtomicIntegerArray(vertexCount);
+        ParallelFor.forEach(pool, vertexCount, v -> parent.set(v, v), GRAIN);
+
+        for (int round = 0; round < NEIGHBOR_ROUNDS; round++) {
+            int r = round;
+            ParallelFor.forEach(pool, vertexCount, v -> {
+                if (offsets[v] + r < offsets[v + 1]) {
+                    hook(parent, v, targets[offsets[v] + r]);
+                }
+            }, GRAIN);
+            ParallelFor.forEach(pool, vertexCount, v -> compress(parent, v),
+                GRAIN);
+        }
+
+        int largest = largestSampled(parent);
+        ParallelFor.forEach(pool, vertexCount, v -> {
+            if (parent.get(v) != largest) {
+                for (int e = offsets[v] + NEIGHBOR_ROUNDS; e < offsets[v + 1];
+                    e++) {
+                    hook(parent, v, targets[e]);
+                }
+            }
+        }, GRAIN);
+        int[] labels = new int[vertexCount];
+        ParallelFor.forEach(pool, vertexCount, v -> {
+            compress(parent, v);
+            labels[v] = parent.get(v);
+        }, GRAIN);
+        return new ConnectedComponents<>(graph, labels);
+    }
+
+    /**
+     * Gets the graph the components are of.
+     *
+     * @return the graph
+     */
+    public CompactGraph<T> getGraph() {
+        return graph;
+    }
+
+    /**
+     * Gets the number of connected components.
+     *
+     * @return the number of components
+     */
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    /**
+     * Checks if the graph is connected. A graph without vertices is.
+     *
+     * @return true if the graph has at most one component
+     */
+    public boolean isConnected() {
+        return componentCount <= 1;
+    }
+
+    /**
+     * Gets the label of the component of every vertex, which is the lowest
+     * vertex id in that component.
+     *
+     * @return the labels indexed by vertex id, of length V
+     */
+    public int[] getLabels() {
+        return labels;
+    }
+
+    /**
+     * Gets the label of the component of a vertex.
+     *
+     * @param id the id of the vertex
+     * @return the lowest vertex id in its component
+     */
+    public int getLabel(int id) {
+        return labels[id];
+    }
+
+    /**
+     * Gets the number of vertices in the component of a vertex.
+     *
+     * @param id the id of the vertex
+     * @return the size of its component
+     */
+    public int getComponentSize(int id) {
+        return sizes[labels[id]];
+    }
+
+    /**
+     * Checks if two vertices are in the same component.
+     *
+     * @param u the id of the first vertex
+     * @param v the id of the second vertex
+     * @return true if a path joins them
+     */
+    public boolean connected(int u, int v) {
+        return labels[u] == labels[v];
+    }
+
+    /**
+     * Joins the components of two vertices by pointing the higher of their
+     * roots at the lower one.
+     *
+     * @param parent the parent of every vertex
+     * @param u      the first vertex
+     * @param v      the second vertex
+     */
+    private static void hook(AtomicIntegerArray parent, int u, int v) {
+        int p1 = parent.get(u);
+        int p2 = parent.get(v);
+        while (p1 != p2) {
+            int high = Math.max(p1, p2);
+            int low = Math.min(p1, p2);
+            int highParent = parent.get(high);
+            if (highParent == low
+                || highParent == high && parent.compareAndSet(high, high, low)) {
+                return;
+            }
+            p1 = parent.get(highParent);
+            p2 = parent.get(low);
+        }
+    }
+
+    /**
+     * Points a vertex straight at its root. Parents only ever move to lower
+     * ids, so a stale read only makes the jump shorter.
+     *
+     * @param parent the parent of every vertex
+     * @param v      the vertex to compress
+     */
+    private static void compress(AtomicIntegerArray parent, int v) {
+        int p = parent.get(v);
+        int grand = parent.get(p);
+        while (p != grand) {
+            parent.set(v, grand);
+            p = grand;
+            grand = parent.get(p);
+        }
+    }
+
+    /**
+     * Guesses the largest component from the roots of sampled vertices.
+     *
+     * @param parent the parent of every vertex, compressed
+     * @return the most common root among the samples, or -1 if there are no
+     * vertices
+     */
+    private static int largestSampled(AtomicIntegerArray parent) {
+        int vertexCount = parent.length();
+        if (vertexCount == 0) {
+            return -1;
+        }
+        Random random = new Random(vertexCount);
+        int[] roots = new int[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            roots[i] = parent.get(random.nextInt(vertexCount));
+        }
+        int[] order = RadixSort.sortedOrder(roots);
+        int best = roots[order[0]];
+        int bestCount = 0;
+        int run = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            run = i > 0 && roots[order[i]] == roots[order[i - 1]] ? run + 1 : 1;
+            if (run > bestCount) {
+                bestCount = run;
+                best = roots[order[i]];
+            }
+        }
+        return best;
+    }
+}
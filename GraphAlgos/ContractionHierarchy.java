@@ -0,0 +1,1054 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A contraction hierarchy over a static CompactGraph, for answering many
+ * point-to-point shortest path queries quickly. Edge weights are assumed to
+ * be non-negative.
+ *
+ * Preprocessing contracts the vertices one at a time, least important first.
+ * Importance is the edge difference (shortcuts needed minus edges removed)
+ * plus the number of already contracted neighbors, and is recomputed lazily
+ * when a vertex reaches the top of the queue. Contracting v adds a shortcut
+ * u -> w for each pair of remaining neighbors u -> v -> w unless a bounded
+ * witness search from u finds a path to w that avoids v and is no longer.
+ *
+ * Every edge, original or shortcut, then points from a lower to a higher
+ * ranked vertex in either the upward graph (out-edges) or the downward graph
+ * (in-edges). A query runs a bidirectional Dijkstra that only moves upward
+ * from both ends, which settles a tiny part of the graph. Shortcuts remember
+ * the vertex they skip, so paths are unpacked back into original edges.
+ *
+ * Queries keep their search state in a per-thread workspace that is reset
+ * with generation stamps, so a hierarchy can be shared by many threads and
+ * repeated queries do not allocate per vertex.
+ */
+public class ContractionHierarchy<T> {
+
+    /**
+     * Marks an edge of the original graph, which skips no vertex.
+     */
+    public static final int NO_MIDDLE = -1;
+
+    /**
+     * The number of vertices a witness search may settle before giving up
+     * when contracting a vertex. Giving up early only adds extra shortcuts.
+     */
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+
+    /**
+     * The smaller settle limit used when only estimating the importance of
+     * a vertex.
+     */
+    private static final int ESTIMATE_SETTLE_LIMIT = 50;
+
+    /**
+     * Identifies the saved form of a hierarchy.
+     */
+    private static final int MAGIC = 0x43480002;
+
+    private final CompactGraph<T> graph;
+    private final int[] rank;
+    private final int[] upOffsets;
+    private final int[] upTargets;
+    private final long[] upWeights;
+    private final int[] upMiddles;
+    private final int[] downOffsets;
+    private final int[] downSources;
+    private final long[] downWeights;
+    private final int[] downMiddles;
+    private final ThreadLocal<Workspace> workspaces;
+
+    /**
+     * Wraps the arrays of a finished hierarchy.
+     *
+     * @param graph       the graph the hierarchy was built from
+     * @param rank        the contraction order position of every vertex
+     * @param upOffsets   the offsets of the upward graph
+     * @param upTargets   the targets of the upward edges
+     * @param upWeights   the weights of the upward edges
+     * @param upMiddles   the skipped vertices of the upward edges
+     * @param downOffsets the offsets of the downward graph
+     * @param downSources the sources of the downward edges
+     * @param downWeights the weights of the downward edges
+     * @param downMiddles the skipped vertices of the downward edges
+     */
+    private ContractionHierarchy(CompactGraph<T> graph, int[] rank,
+        int[] upOffsets, int[] upTargets, long[] upWeights, int[] upMiddles,
+        int[] downOffsets, int[] downSources, long[] downWeights,
+        int[] downMiddles) {
+        this.graph = graph;
+        this.rank = rank;
+        this.upOffsets = upOffsets;
+        this.upTargets = upTargets;
+        this.upWeights = upWeights;
+        this.upMiddles = upMiddles;
+        this.downOffsets = downOffsets;
+        this.downSources = downSources;
+        this.downWeights = downWeights;
+        this.downMiddles = downMiddles;
+        int vertexCount = graph.getVertexCount();
+        workspaces = ThreadLocal.withInitial(() -> new Workspace(vertexCount));
+    }
+
+    /**
+     * Builds a contraction hierarchy for a graph.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the compact graph to preprocess
+     * @return the contraction hierarchy of the graph
+     * @throws IllegalArgumentException if the graph is null
+     */
+    public static <T> ContractionHierarchy<T> build(CompactGraph<T> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("The graph is null");
+        }
+        return new Contractor<>(graph).contractAll();
+    }
+
+    /**
+     * Gets the graph the hierarchy was built from.
+     *
+     * @return the graph
+     */
+    public CompactGraph<T> getGraph() {
+        return graph;
+    }
+
+    /**
+     * Gets the position of a vertex in the contraction order.
+     *
+     * @param id the id of the vertex
+     * @return the rank of the vertex, 0 for the first contracted
+     */
+    public int getRank(int id) {
+        return rank[id];
+    }
+
+    /**
+     * Gets the number of shortcut edges the hierarchy added.
+     *
+     * @return the number of shortcuts
+     */
+    public int getShortcutCount() {
+        int count = 0;
+        for (int middle : upMiddles) {
+            count += middle == NO_MIDDLE ? 0 : 1;
+        }
+        for (int middle : downMiddles) {
+            count += middle == NO_MIDDLE ? 0 : 1;
+        }
+        return count;
+    }
+
+    /**
+     * Finds the shortest distance between two vertices.
+     *
+     * @param source the vertex the path starts at
+     * @param target the vertex the path ends at
+     * @return the distance, or {@link ShortestPaths#UNREACHABLE}
+     * @throws IllegalArgumentException if any input is null or is not in
+     *                                  the graph
+     */
+    public long distance(Vertex<T> source, Vertex<T> target) {
+        Workspace ws = workspaces.get();
+        search(idOf(source), idOf(target), ws);
+        return ws.best;
+    }
+
+    /**
+     * Finds a shortest path between two vertices, unpacking shortcuts into
+     * the original edges.
+     *
+     * @param source the vertex the path starts at
+     * @param target the vertex the path ends at
+     * @return the distance and vertices of a shortest path, or a path with
+     * distance {@link ShortestPaths#UNREACHABLE} and no vertices if there is
+     * none
+     * @throws IllegalArgumentException if any input is null or is not in
+     *                                  the graph
+     */
+    public Path<T> shortestPath(Vertex<T> source, Vertex<T> target) {
+        int s = idOf(source);
+        int t = idOf(target);
+        Workspace ws = workspaces.get();
+        search(s, t, ws);
+        if (ws.best == ShortestPaths.UNREACHABLE) {
+            return new Path<>(ws.best, Collections.emptyList());
+        }
+
+        int[] edges = new int[16];
+        int edgeCount = 0;
+        for (int v = ws.meet; v != s; v = ws.parentForward[v]) {
+            if (edgeCount == edges.length) {
+                edges = Arrays.copyOf(edges, edgeCount * 2);
+            }
+            edges[edgeCount++] = ws.parentEdgeForward[v];
+        }
+        List<Vertex<T>> path = new ArrayList<>();
+        path.add(graph.getVertex(s));
+        for (int i = edgeCount - 1; i >= 0; i--) {
+            int e = edges[i];
+            int from = ws.parentForward[upTargets[e]];
+            unpack(from, upTargets[e], upMiddles[e], path);
+        }
+        for (int v = ws.meet; v != t; v = ws.parentBackward[v]) {
+            int e = ws.parentEdgeBackward[v];
+            unpack(v, ws.parentBackward[v], downMiddles[e], path);
+        }
+        return new Path<>(ws.best, path);
+    }
+
+    /**
+     * Builds a Graph holding every original edge together with every
+     * shortcut edge of the hierarchy.
+     *
+     * @return the augmented graph
+     * @throws ArithmeticException if a shortcut is too heavy for the int
+     *                             weight of an Edge
+     */
+    public Graph<T> toGraph() {
+        Set<Vertex<T>> vertices = new HashSet<>(graph.getVertices());
+        Set<Edge<T>> edges = new HashSet<>();
+        for (int v = 0; v < rank.length; v++) {
+            for (int e = upOffsets[v]; e < upOffsets[v + 1]; e++) {
+                edges.add(new Edge<>(graph.getVertex(v),
+                    graph.getVertex(upTargets[e]),
+                    Math.toIntExact(upWeights[e])));
+            }
+            for (int e = downOffsets[v]; e < downOffsets[v + 1]; e++) {
+                edges.add(new Edge<>(graph.getVertex(downSources[e]),
+                    graph.getVertex(v), Math.toIntExact(downWeights[e])));
+            }
+        }
+        return new Graph<>(vertices, edges);
+    }
+
+    /**
+     * Writes the ranks and the upward and downward graphs to a stream, so
+     * the hierarchy can be loaded again without preprocessing. Vertex data
+     * is not written; the hierarchy is loaded against the same graph.
+     *
+     * @param out the stream to write to
+     * @throws IOException if writing fails
+     * @throws IllegalArgumentException if the stream is null
+     */
+    public void save(OutputStream out) throws IOException {
+        if (out == null) {
+            throw new IllegalArgumentException("The stream is null");
+        }
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(rank.length);
+        data.writeInt(graph.getEdgeCount());
+        writeArray(data, rank);
+        writeArray(data, upOffsets);
+        writeArray(data, upTargets);
+        writeLongArray(data, upWeights);
+        writeArray(data, upMiddles);
+        writeArray(data, downOffsets);
+        writeArray(data, downSources);
+        writeLongArray(data, downWeights);
+        writeArray(data, downMiddles);
+        data.flush();
+    }
+
+    /**
+     * Reads a hierarchy written by {@link #save(OutputStream)}. The arrays
+     * are checked against the graph and each other before use: ranks must
+     * be a permutation, offsets must not decrease, and every edge must lead
+     * upward to a vertex of the graph.
+     *
+     * @param <T>   the generic typing of the data
+     * @param in    the stream to read from
+     * @param graph the graph the hierarchy was built from
+     * @return the loaded hierarchy
+     * @throws IOException if reading fails or the stream does not hold a
+     *                     consistent hierarchy
+     * @throws IllegalArgumentException if any input is null or the hierarchy
+     *                                  was built from a different graph
+     */
+    public static <T> ContractionHierarchy<T> load(InputStream in,
+        CompactGraph<T> graph) throws IOException {
+        if (in == null || graph == null) {
+            throw new IllegalArgumentException("An input is null");
+        }
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("The stream does not hold a contraction hierarchy.");
+        }
+        if (data.readInt() != graph.getVertexCount()
+            || data.readInt() != graph.getEdgeCount()) {
+            throw new IllegalArgumentException("The hierarchy was built from a different graph.");
+        }
+        int vertexCount = graph.getVertexCount();
+        int[] rank = readArray(data, vertexCount);
+        boolean[] ranked = new boolean[vertexCount];
+        for (int r : rank) {
+            if (r < 0 || r >= vertexCount || ranked[r]) {
+                throw new IOException("The ranks of the hierarchy are not a permutation.");
+            }
+            ranked[r] = true;
+        }
+        int[] upOffsets = readOffsets(data, vertexCount);
+        int upCount = upOffsets[vertexCount];
+        int[] upTargets = readArray(data, upCount);
+        long[] upWeights = readLongArray(data, upCount);
+        int[] upMiddles = readArray(data, upCount);
+        checkEdges(rank, upOffsets, upTargets, upWeights, upMiddles);
+        int[] downOffsets = readOffsets(data, vertexCount);
+        int downCount = downOffsets[vertexCount];
+        int[] downSources = readArray(data, downCount);
+        long[] downWeights = readLongArray(data, downCount);
+        int[] downMiddles = readArray(data, downCount);
+        checkEdges(rank, downOffsets, downSources, downWeights, downMiddles);
+        return new ContractionHierarchy<>(graph, rank, upOffsets, upTargets,
+            upWeights, upMiddles, downOffsets, downSources, downWeights,
+            downMiddles);
+    }
+
+    /**
+     * Runs the upward bidirectional search, leaving the distance and the
+     * meeting vertex in the workspace.
+     *
+     * @param s  the id of the source
+     * @param t  the id of the target
+     * @param ws the workspace of this thread
+     */
+    private void search(int s, int t, Workspace ws) {
+        ws.reset();
+        ws.reachForward(s, 0, ShortestPaths.NO_PARENT, -1);
+        ws.reachBackward(t, 0, ShortestPaths.NO_PARENT, -1);
+        ws.best = ShortestPaths.UNREACHABLE;
+        ws.meet = -1;
+        if (s == t) {
+            ws.best = 0;
+            ws.meet = s;
+        }
+        IndexedDaryHeap forward = ws.forwardHeap;
+        IndexedDaryHeap backward = ws.backwardHeap;
+        forward.insertOrDecrease(s, 0);
+        backward.insertOrDecrease(t, 0);
+        while (true) {
+            boolean forwardOpen = !forward.isEmpty()
+                && forward.peekKey() < ws.best;
+            boolean backwardOpen = !backward.isEmpty()
+                && backward.peekKey() < ws.best;
+            if (!forwardOpen && !backwardOpen) {
+                break;
+            }
+            if (forwardOpen && (!backwardOpen
+                || forward.peekKey() <= backward.peekKey())) {
+                int curr = forward.poll();
+                long base = ws.distForward[curr];
+                for (int e = upOffsets[curr]; e < upOffsets[curr + 1]; e++) {
+                    int next = upTargets[e];
+                    long candidate = base + upWeights[e];
+                    if (candidate < ws.forwardDistance(next)) {
+                        ws.reachForward(next, candidate, curr, e);
+                        forward.insertOrDecrease(next, candidate);
+                        long other = ws.backwardDistance(next);
+                        if (other != ShortestPaths.UNREACHABLE
+                            && candidate + other < ws.best) {
+                            ws.best = candidate + other;
+                            ws.meet = next;
+                        }
+                    }
+                }
+            } else {
+                int curr = backward.poll();
+                long base = ws.distBackward[curr];
+                for (int e = downOffsets[curr]; e < downOffsets[curr + 1];
+                    e++) {
+                    int next = downSources[e];
+                    long candidate = base + downWeights[e];
+                    if (candidate < ws.backwardDistance(next)) {
+                        ws.reachBackward(next, candidate, curr, e);
+                        backward.insertOrDecrease(next, candidate);
+                        long other = ws.forwardDistance(next);
+                        if (other != ShortestPaths.UNREACHABLE
+                            && candidate + other < ws.best) {
+                            ws.best = candidate + other;
+                            ws.meet = next;
+                        }
+                    }
+                }
+            }
+        }
+        forward.clear();
+        backward.clear();
+    }
+
+    /**
+     * Appends the original-edge vertices of an edge u -> w to a path, not
+     * including u itself.
+     *
+     * @param u      the tail of the edge
+     * @param w      the head of the edge
+     * @param middle the vertex the edge skips, or {@link #NO_MIDDLE}
+     * @param path   the path to append to
+     */
+    private void unpack(int u, int w, int middle, List<Vertex<T>> path) {
+        int[] stack = new int[24];
+        int size = 0;
+        stack[size++] = u;
+        stack[size++] = w;
+        stack[size++] = middle;
+        while (size > 0) {
+            int mid = stack[--size];
+            int to = stack[--size];
+            int from = stack[--size];
+            if (mid == NO_MIDDLE) {
+                path.add(graph.getVertex(to));
+                continue;
+            }
+            if (size + 6 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            stack[size++] = mid;
+            stack[size++] = to;
+            stack[size++] = middleOfUp(mid, to);
+            stack[size++] = from;
+            stack[size++] = mid;
+            stack[size++] = middleOfDown(from, mid);
+        }
+    }
+
+    /**
+     * Finds the skipped vertex of the upward edge from -> to.
+     *
+     * @param from the lower ranked tail
+     * @param to   the head
+     * @return the skipped vertex of the edge
+     */
+    private int middleOfUp(int from, int to) {
+        for (int e = upOffsets[from]; e < upOffsets[from + 1]; e++) {
+            if (upTargets[e] == to) {
+                return upMiddles[e];
+            }
+        }
+        throw new IllegalStateException("Missing upward edge " + from + " -> " + to);
+    }
+
+    /**
+     * Finds the skipped vertex of the downward edge from -> to.
+     *
+     * @param from the tail
+     * @param to   the lower ranked head
+     * @return the skipped vertex of the edge
+     */
+    private int middleOfDown(int from, int to) {
+        for (int e = downOffsets[to]; e < downOffsets[to + 1]; e++) {
+            if (downSources[e] == from) {
+                return downMiddles[e];
+            }
+        }
+        throw new IllegalStateException("Missing downward edge " + from + " -> " + to);
+    }
+
+    /**
+     * Looks up the id of a query vertex.
+     *
+     * @param vertex the vertex to look up
+     * @return the id of the vertex
+     * @throws IllegalArgumentException if the vertex is null or not in the
+     *                                  graph
+     */
+    private int idOf(Vertex<T> vertex) {
+        if (vertex == null || graph.getId(vertex) < 0) {
+            throw new IllegalArgumentException("An input is null or the graph doesnt contain it");
+        }
+        return graph.getId(vertex);
+    }
+
+    /**
+     * Writes a length-prefixed int array.
+     *
+     * @param data  the stream to write to
+     * @param array the array to write
+     * @throws IOException if writing fails
+     */
+    private static void writeArray(DataOutputStream data, int[] array)
+        throws IOException {
+        data.writeInt(array.length);
+        for (int value : array) {
+            data.writeInt(value);
+        }
+    }
+
+    /**
+     * Writes a length-prefixed long array.
+     *
+     * @param data  the stream to write to
+     * @param array the array to write
+     * @throws IOException if writing fails
+     */
+    private static void writeLongArray(DataOutputStream data, long[] array)
+        throws IOException {
+        data.writeInt(array.length);
+        for (long value : array) {
+            data.writeLong(value);
+        }
+    }
+
+    /**
+     * Reads a length-prefixed int array of a known length.
+     *
+     * @param data   the stream to read from
+     * @param length the length the array must have
+     * @return the array
+     * @throws IOException if reading fails or the stored length differs
+     */
+    private static int[] readArray(DataInputStream data, int length)
+        throws IOException {
+        if (data.readInt() != length) {
+            throw new IOException("An array of the hierarchy has the wrong length.");
+        }
+        int[] array = new int[length];
+        for (int i = 0; i < length; i++) {
+            array[i] = data.readInt();
+        }
+        return array;
+    }
+
+    /**
+     * Reads a length-prefixed long array of a known length.
+     *
+     * @param data   the stream to read from
+     * @param length the length the array must have
+     * @return the array
+     * @throws IOException if reading fails or the stored length differs
+     */
+    private static long[] readLongArray(DataInputStream data, int length)
+        throws IOException {
+        if (data.readInt() != length) {
+            throw new IOException("An array of the hierarchy has the wrong length.");
+        }
+        long[] array = new long[length];
+        for (int i = 0; i < length; i++) {
+            array[i] = data.readLong();
+        }
+        return array;
+    }
+
+    /**
+     * Reads the offsets of the upward or downward graph.
+     *
+     * @param data        the stream to read from
+     * @param vertexCount the number of vertices
+     * @return the offsets, starting at 0 and never decreasing
+     * @throws IOException if reading fails or the offsets are malformed
+     */
+    private static int[] readOffsets(DataInputStream data, int vertexCount)
+        throws IOException {
+        int[] offsets = readArray(data, vertexCount + 1);
+        if (offsets[0] != 0) {
+            throw new IOException("The edge offsets of the hierarchy are malformed.");
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            if (offsets[v + 1] < offsets[v]) {
+                throw new IOException("The edge offsets of the hierarchy are malformed.");
+            }
+        }
+        return offsets;
+    }
+
+    /**
+     * Checks the edges of the upward or downward graph: every edge of v
+     * leads to a vertex ranked above v, has a non-negative weight and skips
+     * either no vertex or a vertex of the graph.
+     *
+     * @param rank    the rank of every vertex
+     * @param offsets the edge offsets
+     * @param ends    the other end of every edge
+     * @param weights the weight of every edge
+     * @param middles the skipped vertex of every edge
+     * @throws IOException if an edge is malformed
+     */
+    private static void checkEdges(int[] rank, int[] offsets, int[] ends,
+        long[] weights, int[] middles) throws IOException {
+        for (int v = 0; v < rank.length; v++) {
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                if (ends[e] < 0 || ends[e] >= rank.length
+                    || rank[ends[e]] <= rank[v] || weights[e] < 0
+                    || middles[e] < NO_MIDDLE || middles[e] >= rank.length) {
+                    throw new IOException("Edge " + e + " of the hierarchy is malformed.");
+                }
+            }
+        }
+    }
+
+    /**
+     * The search state of one thread's queries. Distances are only valid for
+     * vertices stamped with the current generation, so resetting is O(1).
+     */
+    private static final class Workspace {
+
+        private final long[] distForward;
+        private final long[] distBackward;
+        private final int[] stampForward;
+        private final int[] stampBackward;
+        private final int[] parentForward;
+        private final int[] parentBackward;
+        private final int[] parentEdgeForward;
+        private final int[] parentEdgeBackward;
+        private final IndexedDaryHeap forwardHeap;
+        private final IndexedDaryHeap backwardHeap;
+        private int generation;
+        private long best;
+        private int meet;
+
+        /**
+         * Creates a workspace for a graph of the given size.
+         *
+         * @param vertexCount the number of vertices
+         */
+        Workspace(int vertexCount) {
+            distForward = new long[vertexCount];
+            distBackward = new long[vertexCount];
+            stampForward = new int[vertexCount];
+            stampBackward = new int[vertexCount];
+            parentForward = new int[vertexCount];
+            parentBackward = new int[vertexCount];
+            parentEdgeForward = new int[vertexCount];
+            parentEdgeBackward = new int[vertexCount];
+            forwardHeap = new IndexedDaryHeap(vertexCount);
+            backwardHeap = new IndexedDaryHeap(vertexCount);
+        }
+
+        /**
+         * Starts a new query, invalidating every stored distance.
+         */
+        void reset() {
+            generation++;
+            if (generation == 0) {
+                Arrays.fill(stampForward, 0);
+                Arrays.fill(stampBackward, 0);
+                generation = 1;
+            }
+        }
+
+        /**
+         * Gets the forward distance of a vertex in this query.
+         *
+         * @param v the vertex id
+         * @return the distance, or {@link ShortestPaths#UNREACHABLE}
+         */
+        long forwardDistance(int v) {
+            return stampForward[v] == generation ? distForward[v]
+                : ShortestPaths.UNREACHABLE;
+        }
+
+        /**
+         * Gets the backward distance of a vertex in this query.
+         *
+         * @param v the vertex id
+         * @return the distance, or {@link ShortestPaths#UNREACHABLE}
+         */
+        long backwardDistance(int v) {
+            return stampBackward[v] == generation ? distBackward[v]
+                : ShortestPaths.UNREACHABLE;
+        }
+
+        /**
+         * Records a forward distance and the edge it came from.
+         *
+         * @param v      the vertex id
+         * @param d      the distance
+         * @param parent the previous vertex
+         * @param edge   the upward edge used
+         */
+        void reachForward(int v, long d, int parent, int edge) {
+            stampForward[v] = generation;
+            distForward[v] = d;
+            parentForward[v] = parent;
+            parentEdgeForward[v] = edge;
+        }
+
+        /**
+         * Records a backward distance and the edge it came from.
+         *
+         * @param v      the vertex id
+         * @param d      the distance
+         * @param parent the next vertex towards the target
+         * @param edge   the downward edge used
+         */
+        void reachBackward(int v, long d, int parent, int edge) {
+            stampBackward[v] = generation;
+            distBackward[v] = d;
+            parentBackward[v] = parent;
+            parentEdgeBackward[v] = edge;
+        }
+    }
+
+    /**
+     * The mutable state of preprocessing: the remaining graph with its
+     * shortcuts, and the witness search.
+     */
+    private static final class Contractor<T> {
+
+        private final CompactGraph<T> graph;
+        private final int vertexCount;
+        private final int[][] outTo;
+        private final long[][] outWeight;
+        private final int[][] outMiddle;
+        private final int[] outSize;
+        private final int[][] inFrom;
+        private final long[][] inWeight;
+        private final int[][] inMiddle;
+        private final int[] inSize;
+        private final boolean[] contracted;
+        private final int[] contractedNeighbors;
+        private final long[] witnessDist;
+        private final int[] witnessStamp;
+        private final IndexedDaryHeap witnessHeap;
+        private int witnessGeneration;
+
+        /**
+         * Copies the graph into growable adjacency lists, keeping only the
+         * lightest of any parallel edges and dropping self-loops.
+         *
+         * @param graph the graph to preprocess
+         */
+        Contractor(CompactGraph<T> graph) {
+            this.graph = graph;
+            vertexCount = graph.getVertexCount();
+            outTo = new int[vertexCount][];
+            outWeight = new long[vertexCount][];
+            outMiddle = new int[vertexCount][];
+            outSize = new int[vertexCount];
+            inFrom = new int[vertexCount][];
+            inWeight = new long[vertexCount][];
+            inMiddle = new int[vertexCount][];
+            inSize = new int[vertexCount];
+            for (int v = 0; v < vertexCount; v++) {
+                outTo[v] = new int[4];
+                outWeight[v] = new long[4];
+                outMiddle[v] = new int[4];
+                inFrom[v] = new int[4];
+                inWeight[v] = new long[4];
+                inMiddle[v] = new int[4];
+            }
+            contracted = new boolean[vertexCount];
+            contractedNeighbors = new int[vertexCount];
+            witnessDist = new long[vertexCount];
+            witnessStamp = new int[vertexCount];
+            witnessHeap = new IndexedDaryHeap(vertexCount);
+
+            int[] offsets = graph.getOffsets();
+            int[] targets = graph.getTargets();
+            int[] weights = graph.getWeights();
+            for (int u = 0; u < vertexCount; u++) {
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    if (targets[e] != u) {
+                        addEdge(u, targets[e], weights[e], NO_MIDDLE);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Contracts every vertex and collects the upward and downward
+         * graphs.
+         *
+         * @return the finished hierarchy
+         */
+        ContractionHierarchy<T> contractAll() {
+            IndexedDaryHeap queue = new IndexedDaryHeap(vertexCount);
+            for (int v = 0; v < vertexCount; v++) {
+                queue.insertOrDecrease(v, priority(v));
+            }
+            int[] rank = new int[vertexCount];
+            long[][] upEdges = new long[vertexCount][];
+            long[][] downEdges = new long[vertexCount][];
+            int order = 0;
+            while (!queue.isEmpty()) {
+                int v = queue.poll();
+                long p = priority(v);
+                if (!queue.isEmpty() && p > queue.peekKey()) {
+                    queue.insertOrDecrease(v, p);
+                    continue;
+                }
+                rank[v] = order++;
+                upEdges[v] = activeEdges(outTo[v], outWeight[v],
+                    outMiddle[v], outSize[v]);
+                downEdges[v] = activeEdges(inFrom[v], inWeight[v],
+                    inMiddle[v], inSize[v]);
+                contract(v, false);
+                contracted[v] = true;
+                for (int i = 0; i < outSize[v]; i++) {
+                    contractedNeighbors[outTo[v][i]]++;
+                    detachIn(outTo[v][i], v);
+                }
+                for (int i = 0; i < inSize[v]; i++) {
+                    contractedNeighbors[inFrom[v][i]]++;
+                    detachOut(inFrom[v][i], v);
+                }
+                outTo[v] = null;
+                outWeight[v] = null;
+                outMiddle[v] = null;
+                inFrom[v] = null;
+                inWeight[v] = null;
+                inMiddle[v] = null;
+            }
+
+            int[] upOffsets = new int[vertexCount + 1];
+            int[] downOffsets = new int[vertexCount + 1];
+            for (int v = 0; v < vertexCount; v++) {
+                upOffsets[v + 1] = upOffsets[v] + upEdges[v].length / 3;
+                downOffsets[v + 1] = downOffsets[v] + downEdges[v].length / 3;
+            }
+            int[] upTargets = new int[upOffsets[vertexCount]];
+            long[] upWeights = new long[upTargets.length];
+            int[] upMiddles = new int[upTargets.length];
+            int[] downSources = new int[downOffsets[vertexCount]];
+            long[] downWeights = new long[downSources.length];
+            int[] downMiddles = new int[downSources.length];
+            for (int v = 0; v < vertexCount; v++) {
+                for (int i = 0, e = upOffsets[v]; e < upOffsets[v + 1];
+                    i += 3, e++) {
+                    upTargets[e] = (int) upEdges[v][i];
+                    upWeights[e] = upEdges[v][i + 1];
+                    upMiddles[e] = (int) upEdges[v][i + 2];
+                }
+                for (int i = 0, e = downOffsets[v]; e < downOffsets[v + 1];
+                    i += 3, e++) {
+                    downSources[e] = (int) downEdges[v][i];
+                    downWeights[e] = downEdges[v][i + 1];
+                    downMiddles[e] = (int) downEdges[v][i + 2];
+                }
+            }
+            return new ContractionHierarchy<>(graph, rank, upOffsets,
+                upTargets, upWeights, upMiddles, downOffsets, downSources,
+                downWeights, downMiddles);
+        }
+
+        /**
+         * Computes the importance of a vertex in the remaining graph.
+         *
+         * @param v the vertex id
+         * @return the edge difference plus the contracted neighbor count
+         */
+        private long priority(int v) {
+            int removed = 0;
+            for (int i = 0; i < outSize[v]; i++) {
+                removed += contracted[outTo[v][i]] ? 0 : 1;
+            }
+            for (int i = 0; i < inSize[v]; i++) {
+                removed += contracted[inFrom[v][i]] ? 0 : 1;
+            }
+            return contract(v, true) - removed + contractedNeighbors[v];
+        }
+
+        /**
+         * Finds the shortcuts needed to contract a vertex, and adds them
+         * unless only counting.
+         *
+         * @param v         the vertex id
+         * @param countOnly whether to only count the shortcuts
+         * @return the number of shortcuts needed
+         */
+        private int contract(int v, boolean countOnly) {
+            int shortcuts = 0;
+            for (int i = 0; i < inSize[v]; i++) {
+                int u = inFrom[v][i];
+                if (contracted[u]) {
+                    continue;
+                }
+                long limit = -1;
+                for (int j = 0; j < outSize[v]; j++) {
+                    if (!contracted[outTo[v][j]] && outTo[v][j] != u) {
+                        limit = Math.max(limit, outWeight[v][j]);
+                    }
+                }
+                if (limit < 0) {
+                    continue;
+                }
+                limit += inWeight[v][i];
+                witnessSearch(u, v, limit, countOnly ? ESTIMATE_SETTLE_LIMIT
+                    : WITNESS_SETTLE_LIMIT);
+                for (int j = 0; j < outSize[v]; j++) {
+                    int w = outTo[v][j];
+                    if (contracted[w] || w == u) {
+                        continue;
+                    }
+                    long via = inWeight[v][i] + outWeight[v][j];
+                    if (witnessDistance(w) > via) {
+                        shortcuts++;
+                        if (!countOnly) {
+                            addEdge(u, w, via, v);
+                        }
+                    }
+                }
+            }
+            return shortcuts;
+        }
+
+        /**
+         * Runs a bounded Dijkstra from u in the remaining graph without v.
+         *
+         * @param u           the start of the search
+         * @param v           the vertex being contracted
+         * @param limit       the distance past which the search may stop
+         * @param settleLimit the number of vertices the search may settle
+         */
+        private void witnessSearch(int u, int v, long limit,
+            int settleLimit) {
+            witnessGeneration++;
+            witnessStamp[u] = witnessGeneration;
+            witnessDist[u] = 0;
+            witnessHeap.insertOrDecrease(u, 0);
+            int settled = 0;
+            while (!witnessHeap.isEmpty() && settled < settleLimit
+                && witnessHeap.peekKey() <= limit) {
+                int curr = witnessHeap.poll();
+                settled++;
+                for (int i = 0; i < outSize[curr]; i++) {
+                    int next = outTo[curr][i];
+                    if (next == v || contracted[next]) {
+                        continue;
+                    }
+                    long candidate = witnessDist[curr] + outWeight[curr][i];
+                    if (candidate < witnessDistance(next)) {
+                        witnessStamp[next] = witnessGeneration;
+                        witnessDist[next] = candidate;
+                        witnessHeap.insertOrDecrease(next, candidate);
+                    }
+                }
+            }
+            witnessHeap.clear();
+        }
+
+        /**
+         * Gets the distance the last witness search found to a vertex.
+         *
+         * @param w the vertex id
+         * @return the distance, or {@link ShortestPaths#UNREACHABLE}
+         */
+        private long witnessDistance(int w) {
+            return witnessStamp[w] == witnessGeneration ? witnessDist[w]
+                : ShortestPaths.UNREACHABLE;
+        }
+
+        /**
+         * Adds the edge u -> w, or lowers the weight of an existing one.
+         * Weights are longs, since a shortcut of shortcuts can be heavier
+         * than any int.
+         *
+         * @param u      the tail
+         * @param w      the head
+         * @param weight the weight
+         * @param middle the skipped vertex, or {@link #NO_MIDDLE}
+         */
+        private void addEdge(int u, int w, long weight, int middle) {
+            for (int i = 0; i < outSize[u]; i++) {
+                if (outTo[u][i] == w) {
+                    if (weight < outWeight[u][i]) {
+                        outWeight[u][i] = weight;
+                        outMiddle[u][i] = middle;
+                        for (int j = 0; j < inSize[w]; j++) {
+                            if (inFrom[w][j] == u) {
+                                inWeight[w][j] = weight;
+                                inMiddle[w][j] = middle;
+                            }
+                        }
+                    }
+                    return;
+                }
+            }
+            if (outSize[u] == outTo[u].length) {
+                outTo[u] = Arrays.copyOf(outTo[u], outSize[u] * 2);
+                outWeight[u] = Arrays.copyOf(outWeight[u], outSize[u] * 2);
+                outMiddle[u] = Arrays.copyOf(outMiddle[u], outSize[u] * 2);
+            }
+            outTo[u][outSize[u]] = w;
+            outWeight[u][outSize[u]] = weight;
+            outMiddle[u][outSize[u]++] = middle;
+            if (inSize[w] == inFrom[w].length) {
+                inFrom[w] = Arrays.copyOf(inFrom[w], inSize[w] * 2);
+                inWeight[w] = Arrays.copyOf(inWeight[w], inSize[w] * 2);
+                inMiddle[w] = Arrays.copyOf(inMiddle[w], inSize[w] * 2);
+            }
+            inFrom[w][inSize[w]] = u;
+            inWeight[w][inSize[w]] = weight;
+            inMiddle[w][inSize[w]++] = middle;
+        }
+
+        /**
+         * Removes the edge u -> v from the out-edges of u, if present, by
+         * moving the last out-edge into its place.
+         *
+         * @param u the tail
+         * @param v the contracted head
+         */
+        private void detachOut(int u, int v) {
+            if (outTo[u] == null) {
+                return;
+            }
+            for (int i = 0; i < outSize[u]; i++) {
+                if (outTo[u][i] == v) {
+                    int last = --outSize[u];
+                    outTo[u][i] = outTo[u][last];
+                    outWeight[u][i] = outWeight[u][last];
+                    outMiddle[u][i] = outMiddle[u][last];
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Removes the edge u -> w from the in-edges of w, if present, by
+         * moving the last in-edge into its place.
+         *
+         * @param w the head
+         * @param u the contracted tail
+         */
+        private void detachIn(int w, int u) {
+            if (inFrom[w] == null) {
+                return;
+            }
+            for (int i = 0; i < inSize[w]; i++) {
+                if (inFrom[w][i] == u) {
+                    int last = --inSize[w];
+                    inFrom[w][i] = inFrom[w][last];
+                    inWeight[w][i] = inWeight[w][last];
+                    inMiddle[w][i] = inMiddle[w][last];
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Copies the edges of a list that lead to uncontracted vertices as
+         * (vertex, weight, middle) triples.
+         *
+         * @param ends    the other end of every edge
+         * @param weights the weight of every edge
+         * @param middles the skipped vertex of every edge
+         * @param size    the number of edges in the list
+         * @return the flattened triples
+         */
+        private long[] activeEdges(int[] ends, long[] weights, int[] middles,
+            int size) {
+            long[] triples = new long[size * 3];
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (!contracted[ends[i]]) {
+                    triples[count++] = ends[i];
+                    triples[count++] = weights[i];
+                    triples[count++] = middles[i];
+                }
+            }
+            return Arrays.copyOf(triples, count);
+        }
+    }
+}
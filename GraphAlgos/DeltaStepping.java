@@ -0,0 +1,467 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Parallel single-source shortest paths over a CompactGraph using
+ * delta-stepping (Meyer and Sanders). Edge weights are assumed to be
+ * non-negative.
+ *
+ * Vertices are kept in buckets of width delta by tentative distance, and the
+ * lowest non-empty bucket is processed in phases. Each phase relaxes the
+ * light edges (weight at most delta) of every vertex in the bucket in
+ * parallel, which may refill the same bucket, and once the bucket stays
+ * empty the heavy edges of every vertex it held are relaxed in parallel too.
+ * Distances are lowered with a compare-and-set minimum on a shared array, so
+ * workers never lock. A small delta does less wasted work and a large delta
+ * exposes more parallelism; {@link #defaultDelta(CompactGraph)} picks a
+ * middle ground from the edge weights.
+ */
+public final class DeltaStepping {
+
+    /**
+     * Bucket ranges at most this long are relaxed by a single task.
+     */
+    private static final int GRAIN = 256;
+
+    /**
+     * The most buckets the ring holds, so that a large weight over a small
+     * delta does not allocate one bucket per possible distance.
+     */
+    private static final int MAX_BUCKETS = 1 << 16;
+
+    /**
+     * Hidden constructor, this class only has static methods.
+     */
+    private DeltaStepping() {
+    }
+
+    /**
+     * Finds the shortest distance from the start vertex to every vertex on
+     * the common pool with the default delta.
+     *
+     * @param <T>   the generic typing of the data
+     * @param start the vertex to begin the search on (source)
+     * @param graph the compact graph to search through
+     * @return the distances and shortest path tree from start
+     * @throws IllegalArgumentException if any input is null, or if start
+     *                                  doesn't exist in the graph.
+     */
+    public static <T> ShortestPaths<T> run(Vertex<T> start,
+        CompactGraph<T> graph) {
+        if (graph == null || start == null || graph.getId(start) < 0) {
+            throw new IllegalArgumentException("An input is null or the graph does not contain the start");
+        }
+        return run(graph.getId(start), graph, defaultDelta(graph),
+            ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Finds the shortest distance from the source id to every vertex. The
+     * shortest path tree is rebuilt after the parallel search from the edges
+     * whose weight matches the difference of their end distances.
+     *
+     * @param <T>    the generic typing of the data
+     * @param source the id of the source vertex
+     * @param graph  the compact graph to search through
+     * @param delta  the bucket width
+     * @param pool   the pool to run the search on
+     * @return the distances and shortest path tree from source
+     * @throws IllegalArgumentException if the graph or pool is null, the
+     *                                  source is not a vertex id of the graph
+     *                                  or delta is not positive
+     */
+    public static <T> ShortestPaths<T> run(int source, CompactGraph<T> graph,
+        int delta, ForkJoinPool pool) {
+        long[] dist = distances(source, graph, delta, pool);
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getWeights();
+        int[] parent = new int[dist.length];
+        Arrays.fill(parent, ShortestPaths.NO_PARENT);
+        int[] queue = new int[dist.length];
+        boolean[] reached = new boolean[dist.length];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        reached[source] = true;
+        while (head < tail) {
+            int curr = queue[head++];
+            for (int e = offsets[curr]; e < offsets[curr + 1]; e++) {
+                int next = targets[e];
+                if (!reached[next] && dist[curr] + weights[e] == dist[next]) {
+                    reached[next] = true;
+                    parent[next] = curr;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return new ShortestPaths<>(graph, source, dist, parent);
+    }
+
+    /**
+     * Finds the shortest distance from the source id to every vertex.
+     *
+     * @param source the id of the source vertex
+     * @param graph  the compact graph to search through
+     * @param delta  the bucket width
+     * @param pool   the pool to run the search on
+     * @return the distance of every vertex indexed by id, or
+     * {@link ShortestPaths#UNREACHABLE}
+     * @throws IllegalArgumentException if the graph or pool is null, the
+     *                                  source is not a vertex id of the graph
+     *                                  or delta is not positive
+     */
+    public static long[] distances(int source, CompactGraph<?> graph,
+        int delta, ForkJoinPool pool) {
+        if (graph == null || pool == null || source < 0
+            || source >= graph.getVertexCount() || delta <= 0) {
+            throw new IllegalArgumentException("An input is null, the source is out of range or delta is not positive");
+        }
+        int vertexCount = graph.getVertexCount();
+        int maxWeight = 0;
+        for (int w : graph.getWeights()) {
+            maxWeight = Math.max(maxWeight, w);
+        }
+        AtomicLongArray dist = new AtomicLongArray(vertexCount);
+        for (int i = 0; i < vertexCount; i++) {
+            dist.set(i, ShortestPaths.UNREACHABLE);
+        }
+        dist.set(source, 0);
+
+        Buckets buckets = new Buckets((int) Math.min(MAX_BUCKETS,
+            (long) maxWeight / delta + 2), vertexCount);
+        buckets.add(source, 0);
+        int[] settledStamp = new int[vertexCount];
+        Arrays.fill(settledStamp, -1);
+        int[] bucketMembers = new int[16];
+        int stamp = 0;
+        long current = 0;
+        while (!buckets.isEmpty()) {
+            current = buckets.nextNonEmpty(current);
+            int memberCount = 0;
+            int[] frontier = buckets.take(current, dist, delta);
+            while (frontier.length > 0) {
+                for (int v : frontier) {
+                    if (settledStamp[v] != stamp) {
+                        settledStamp[v] = stamp;
+                        if (memberCount == bucketMembers.length) {
+                            bucketMembers = Arrays.copyOf(bucketMembers,
+                                memberCount * 2);
+                        }
+                        bucketMembers[memberCount++] = v;
+                    }
+                }
+                int[] improved = relax(pool, new Relax(graph, dist,
+                    frontier, 0, frontier.length, delta, true));
+                buckets.addAll(improved, dist, delta);
+                frontier = buckets.take(current, dist, delta);
+            }
+            int[] improved = relax(pool, new Relax(graph, dist, bucketMembers,
+                0, memberCount, delta, false));
+            buckets.addAll(improved, dist, delta);
+            stamp++;
+        }
+
+        long[] result = new long[vertexCount];
+        for (int i = 0; i < vertexCount; i++) {
+            result[i] = dist.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Runs a relax task, on the pool only if it is large enough to split,
+     * so that the many small buckets of a small delta do not each pay for a
+     * hand-off to the pool.
+     *
+     * @param pool the pool to run large tasks on
+     * @param task the task to run
+     * @return the ids whose distance the task lowered
+     */
+    private static int[] relax(ForkJoinPool pool, Relax task) {
+        return task.hi - task.lo > GRAIN ? pool.invoke(task) : task.compute();
+    }
+
+    /**
+     * Picks a bucket width from the edge weights: the largest weight divided
+     * by the average out-degree, so that a vertex has about one light edge on
+     * average, but never more than the largest weight.
+     *
+     * @param graph the compact graph to search through
+     * @return a bucket width in [1, max(1, largest weight)]
+     * @throws IllegalArgumentException if the graph is null
+     */
+    public static int defaultDelta(CompactGraph<?> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("The graph is null");
+        }
+        if (graph.getEdgeCount() == 0) {
+            return 1;
+        }
+        int maxWeight = 0;
+        for (int w : graph.getWeights()) {
+            maxWeight = Math.max(maxWeight, w);
+        }
+        long delta = (long) maxWeight * graph.getVertexCount()
+            / graph.getEdgeCount();
+        return (int) Math.max(1, Math.min(maxWeight, delta));
+    }
+
+    /**
+     * Cyclic buckets of vertex ids. No tentative distance is ever more than
+     * the largest weight above the current bucket, so a ring of
+     * maxWeight / delta + 2 buckets never holds two bucket indices in one
+     * slot. The ring is capped at {@link #MAX_BUCKETS}, though, so a slot may
+     * also hold vertices queued a whole number of laps ahead; those stay in
+     * the slot until their lap comes round. A slot's array is only allocated
+     * once a vertex is queued in it, and a bitmap of the non-empty slots lets
+     * the search for the next bucket skip empty slots a word at a time.
+     */
+    private static final class Buckets {
+
+        private final int[][] items;
+        private final int[] sizes;
+        private final long[] nonEmpty;
+        private final long[] queuedIn;
+        private int queued;
+
+        /**
+         * Creates empty buckets.
+         *
+         * @param count       the number of buckets in the ring
+         * @param vertexCount the number of vertices
+         */
+        Buckets(int count, int vertexCount) {
+            items = new int[count][];
+            sizes = new int[count];
+            nonEmpty = new long[(count + 63) >>> 6];
+            queuedIn = new long[vertexCount];
+            Arrays.fill(queuedIn, -1);
+        }
+
+        /**
+         * Checks if every bucket is empty.
+         *
+         * @return true if no vertex is queued
+         */
+        boolean isEmpty() {
+            return queued == 0;
+        }
+
+        /**
+         * Finds the first non-empty bucket at or after the given one. If a
+         * whole lap of the ring holds no vertex for the lap being walked,
+         * jumps straight to the lowest queued bucket.
+         *
+         * @param from the bucket index to start at
+         * @return the index of a non-empty bucket
+         */
+        long nextNonEmpty(long from) {
+            long lowest = Long.MAX_VALUE;
+            long end = from + sizes.length;
+            long index = from;
+            while (index < end) {
+                int slot = (int) (index % sizes.length);
+                int next = nextNonEmptySlot(slot);
+                if (next < 0) {
+                    index += sizes.length - slot;
+                    continue;
+                }
+                index += next - slot;
+                if (index >= end) {
+                    break;
+                }
+                for (int i = 0; i < sizes[next]; i++) {
+                    long queuedAt = queuedIn[items[next][i]];
+                    if (queuedAt == index) {
+                        return index;
+                    }
+                    if (queuedAt > index) {
+                        lowest = Math.min(lowest, queuedAt);
+                    }
+                }
+                index++;
+            }
+            return lowest;
+        }
+
+        /**
+         * Finds the first non-empty slot at or after the given one, without
+         * wrapping round the ring.
+         *
+         * @param slot the slot to start at
+         * @return the non-empty slot, or -1 if every later slot is empty
+         */
+        private int nextNonEmptySlot(int slot) {
+            int word = slot >>> 6;
+            long bits = nonEmpty[word] & -1L << slot;
+            while (bits == 0) {
+                if (++word == nonEmpty.length) {
+                    return -1;
+                }
+                bits = nonEmpty[word];
+            }
+            return (word << 6) + Long.numberOfTrailingZeros(bits);
+        }
+
+        /**
+         * Queues a vertex in a bucket unless it is already queued there.
+         *
+         * @param v     the vertex id
+         * @param index the bucket index
+         */
+        void add(int v, long index) {
+            if (queuedIn[v] == index) {
+                return;
+            }
+            if (queuedIn[v] < 0) {
+                queued++;
+            }
+            queuedIn[v] = index;
+            int slot = (int) (index % sizes.length);
+            if (items[slot] == null) {
+                items[slot] = new int[8];
+            } else if (sizes[slot] == items[slot].length) {
+                items[slot] = Arrays.copyOf(items[slot], sizes[slot] * 2);
+            }
+            items[slot][sizes[slot]++] = v;
+            nonEmpty[slot >>> 6] |= 1L << slot;
+        }
+
+        /**
+         * Queues every improved vertex in the bucket of its new distance.
+         *
+         * @param improved the ids whose distance was lowered
+         * @param dist     the tentative distances
+         * @param delta    the bucket width
+         */
+        void addAll(int[] improved, AtomicLongArray dist, int delta) {
+            for (int v : improved) {
+                add(v, dist.get(v) / delta);
+            }
+        }
+
+        /**
+         * Empties a bucket, dropping vertices whose distance has since moved
+         * them to a lower bucket and keeping those queued in the same slot a
+         * lap ahead.
+         *
+         * @param index the bucket index
+         * @param dist  the tentative distances
+         * @param delta the bucket width
+         * @return the ids that still belong in the bucket
+         */
+        int[] take(long index, AtomicLongArray dist, int delta) {
+            int slot = (int) (index % sizes.length);
+            int[] taken = new int[sizes[slot]];
+            int count = 0;
+            int kept = 0;
+            for (int i = 0; i < sizes[slot]; i++) {
+                int v = items[slot][i];
+                long queuedAt = queuedIn[v];
+                if (queuedAt == index) {
+                    queuedIn[v] = -1;
+                    queued--;
+                    if (dist.get(v) / delta == index) {
+                        taken[count++] = v;
+                    }
+                } else if (queuedAt > index
+                    && queuedAt % sizes.length == slot) {
+                    items[slot][kept++] = v;
+                }
+            }
+            sizes[slot] = kept;
+            if (kept == 0) {
+                nonEmpty[slot >>> 6] &= ~(1L << slot);
+            }
+            return count == taken.length ? taken : Arrays.copyOf(taken, count);
+        }
+    }
+
+    /**
+     * Relaxes the light or heavy out-edges of a range of vertices and
+     * returns the ids whose distance it lowered.
+     */
+    private static final class Relax extends RecursiveTask<int[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final CompactGraph<?> graph;
+        private final AtomicLongArray dist;
+        private final int[] vertices;
+        private final int lo;
+        private final int hi;
+        private final int delta;
+        private final boolean light;
+
+        /**
+         * Creates a task over vertices[lo, hi).
+         *
+         * @param graph    the graph being searched
+         * @param dist     the tentative distances
+         * @param vertices the vertices whose edges to relax
+         * @param lo       the first position to relax
+         * @param hi       one past the last position to relax
+         * @param delta    the bucket width
+         * @param light    whether to relax light edges instead of heavy ones
+         */
+        Relax(CompactGraph<?> graph, AtomicLongArray dist, int[] vertices,
+            int lo, int hi, int delta, boolean light) {
+            this.graph = graph;
+            this.dist = dist;
+            this.vertices = vertices;
+            this.lo = lo;
+            this.hi = hi;
+            this.delta = delta;
+            this.light = light;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                Relax left = new Relax(graph, dist, vertices, lo, mid, delta,
+                    light);
+                left.fork();
+                int[] right = new Relax(graph, dist, vertices, mid, hi, delta,
+                    light).compute();
+                int[] leftResult = left.join();
+                int[] merged = Arrays.copyOf(leftResult,
+                    leftResult.length + right.length);
+                System.arraycopy(right, 0, merged, leftResult.length,
+                    right.length);
+                return merged;
+            }
+            int[] offsets = graph.getOffsets();
+            int[] targets = graph.getTargets();
+            int[] weights = graph.getWeights();
+            int[] improved = new int[16];
+            int count = 0;
+            for (int i = lo; i < hi; i++) {
+                int curr = vertices[i];
+                long base = dist.get(curr);
+                for (int e = offsets[curr]; e < offsets[curr + 1]; e++) {
+                    if ((weights[e] <= delta) != light) {
+                        continue;
+                    }
+                    int next = targets[e];
+                    long candidate = base + weights[e];
+                    long old = dist.get(next);
+                    while (candidate < old
+                        && !dist.compareAndSet(next, old, candidate)) {
+                        old = dist.get(next);
+                    }
+                    if (candidate < old) {
+                        if (count == improved.length) {
+                            improved = Arrays.copyOf(improved, count * 2);
+                        }
+                        improved[count++] = next;
+                    }
+                }
+            }
+            return Arrays.copyOf(improved, count);
+        }
+    }
+}
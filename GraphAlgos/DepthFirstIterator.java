@@ -0,0 +1,199 @@
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+
+/**
+ * A lazy, non-recursive depth first search over a CompactGraph. The search
+ * keeps an explicit stack of vertex ids and edge cursors and a visited
+ * bitset, and only advances when the next vertex is asked for, so callers
+ * can stop early without the whole traversal being computed.
+ *
+ * Every vertex produces a pre-order event when it is discovered and a
+ * post-order event when all of its out-edges have been explored. The
+ * iterator returns the vertex id of each event of the requested kinds, and
+ * {@link #lastEvent()} tells which kind the last returned id was. The
+ * pre-order ids come in the same order as the recursive dfs.
+ */
+public class DepthFirstIterator implements PrimitiveIterator.OfInt {
+
+    /**
+     * The kinds of events a depth first search produces.
+     */
+    public enum Event {
+        /**
+         * A vertex was discovered.
+         */
+        PRE_ORDER,
+        /**
+         * All out-edges of a vertex were explored.
+         */
+        POST_ORDER
+    }
+
+    private final int[] offsets;
+    private final int[] targets;
+    private final boolean reportPre;
+    private final boolean reportPost;
+    private final BitSet visited;
+    private int[] stack;
+    private int[] cursor;
+    private int size;
+    private int nextId;
+    private Event nextEvent;
+    private Event lastEvent;
+
+    /**
+     * Creates an iterator over the pre-order events of a dfs from source.
+     *
+     * @param graph  the compact graph to search through
+     * @param source the id of the vertex to begin the dfs on
+     * @throws IllegalArgumentException if the graph is null or the source is
+     *                                  not a vertex id of the graph
+     */
+    public DepthFirstIterator(CompactGraph<?> graph, int source) {
+        this(graph, source, EnumSet.of(Event.PRE_ORDER));
+    }
+
+    /**
+     * Creates an iterator over the given kinds of events of a dfs from
+     * source.
+     *
+     * @param graph  the compact graph to search through
+     * @param source the id of the vertex to begin the dfs on
+     * @param events the kinds of events to return
+     * @throws IllegalArgumentException if any input is null or the source is
+     *                                  not a vertex id of the graph
+     */
+    public DepthFirstIterator(CompactGraph<?> graph, int source,
+        Set<Event> events) {
+        if (graph == null || events == null || source < 0
+            || source >= graph.getVertexCount()) {
+            throw new IllegalArgumentException("An input is null or the source is out of range");
+        }
+        offsets = graph.getOffsets();
+        targets = graph.getTargets();
+        reportPre = events.contains(Event.PRE_ORDER);
+        reportPost = events.contains(Event.POST_ORDER);
+        visited = new BitSet(graph.getVertexCount());
+        stack = new int[Math.min(16, graph.getVertexCount())];
+        cursor = new int[stack.length];
+        visited.set(source);
+        stack[0] = source;
+        cursor[0] = offsets[source];
+        size = 1;
+        nextId = source;
+        nextEvent = Event.PRE_ORDER;
+        if (!reportPre) {
+            advance();
+        }
+    }
+
+    /**
+     * Creates a lazy iterator over the vertices of a dfs, in the order they
+     * are discovered.
+     *
+     * @param <T>   the generic typing of the data
+     * @param start the vertex to begin the dfs on
+     * @param graph the compact graph to search through
+     * @return an iterator over the vertices in visited order
+     * @throws IllegalArgumentException if any input is null, or if start
+     *                                  doesn't exist in the graph
+     */
+    public static <T> Iterator<Vertex<T>> vertices(Vertex<T> start,
+        CompactGraph<T> graph) {
+        if (graph == null || start == null || graph.getId(start) < 0) {
+            throw new IllegalArgumentException("An input is null or the graph doesn't contain the start");
+        }
+        DepthFirstIterator ids = new DepthFirstIterator(graph,
+            graph.getId(start));
+        return new Iterator<Vertex<T>>() {
+            @Override
+            public boolean hasNext() {
+                return ids.hasNext();
+            }
+
+            @Override
+            public Vertex<T> next() {
+                return graph.getVertex(ids.nextInt());
+            }
+        };
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextEvent != null;
+    }
+
+    @Override
+    public int nextInt() {
+        if (nextEvent == null) {
+            throw new NoSuchElementException("The search has finished.");
+        }
+        int id = nextId;
+        lastEvent = nextEvent;
+        advance();
+        return id;
+    }
+
+    /**
+     * Gets the kind of event of the id last returned by {@link #nextInt()}.
+     *
+     * @return the last event, or null if nothing has been returned yet
+     */
+    public Event lastEvent() {
+        return lastEvent;
+    }
+
+    /**
+     * Runs the search until the next event that should be reported, or until
+     * the stack is empty.
+     */
+    private void advance() {
+        while (size > 0) {
+            int curr = stack[size - 1];
+            int e = cursor[size - 1];
+            int end = offsets[curr + 1];
+            while (e < end && visited.get(targets[e])) {
+                e++;
+            }
+            if (e == end) {
+                size--;
+                if (reportPost) {
+                    nextId = curr;
+                    nextEvent = Event.POST_ORDER;
+                    return;
+                }
+            } else {
+                int next = targets[e];
+                cursor[size - 1] = e + 1;
+                visited.set(next);
+                push(next);
+                if (reportPre) {
+                    nextId = next;
+                    nextEvent = Event.PRE_ORDER;
+                    return;
+                }
+            }
+        }
+        nextEvent = null;
+    }
+
+    /**
+     * Pushes a newly discovered vertex, growing the stack if needed.
+     *
+     * @param id the id of the vertex
+     */
+    private void push(int id) {
+        if (size == stack.length) {
+            stack = Arrays.copyOf(stack, size * 2);
+            cursor = Arrays.copyOf(cursor, size * 2);
+        }
+        stack[size] = id;
+        cursor[size] = offsets[id];
+        size++;
+    }
+}
@@ -0,0 +1,83 @@
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Single-source shortest paths over a CompactGraph using an
+ * {@link IndexedDaryHeap}. Each vertex is in the heap at most once and its
+ * key is lowered in place when a shorter path is found, so a search does no
+ * allocation per edge. A vertex's distance is final once it is polled from
+ * the heap. Edge weights are assumed to be non-negative.
+ */
+public final class Dijkstra {
+
+    /**
+     * Hidden constructor, this class only has static methods.
+     */
+    private Dijkstra() {
+    }
+
+    /**
+     * Finds the shortest distance from the start vertex to every vertex.
+     *
+     * @param <T>   the generic typing of the data
+     * @param start the vertex to begin the Dijkstra's on (source)
+     * @param graph the compact graph we are applying Dijkstra's to
+     * @return the distances and shortest path tree from start
+     * @throws IllegalArgumentException if any input is null, or if start
+     *                                  doesn't exist in the graph.
+     */
+    public static <T> ShortestPaths<T> run(Vertex<T> start,
+        CompactGraph<T> graph) {
+        if (graph == null || start == null || graph.getId(start) < 0) {
+            throw new IllegalArgumentException("An input is null or the graph does not contain the start");
+        }
+        return run(graph.getId(start), graph, IndexedDaryHeap.DEFAULT_ARITY);
+    }
+
+    /**
+     * Finds the shortest distance from the source id to every vertex.
+     *
+     * @param <T>    the generic typing of the data
+     * @param source the id of the source vertex
+     * @param graph  the compact graph we are applying Dijkstra's to
+     * @param arity  the arity of the heap
+     * @return the distances and shortest path tree from source
+     * @throws IllegalArgumentException if the graph is null, the source is
+     *                                  not a vertex id of the graph or the
+     *                                  arity is less than 2
+     */
+    public static <T> ShortestPaths<T> run(int source, CompactGraph<T> graph,
+        int arity) {
+        if (graph == null || source < 0 || source >= graph.getVertexCount()) {
+            throw new IllegalArgumentException("The graph is null or the source is out of range");
+        }
+        int vertexCount = graph.getVertexCount();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getWeights();
+        long[] dist = new long[vertexCount];
+        int[] parent = new int[vertexCount];
+        Arrays.fill(dist, ShortestPaths.UNREACHABLE);
+        Arrays.fill(parent, ShortestPaths.NO_PARENT);
+        BitSet settled = new BitSet(vertexCount);
+        IndexedDaryHeap heap = new IndexedDaryHeap(vertexCount, arity);
+
+        dist[source] = 0;
+        heap.insertOrDecrease(source, 0);
+        while (!heap.isEmpty()) {
+            int curr = heap.poll();
+            settled.set(curr);
+            long base = dist[curr];
+            for (int e = offsets[curr]; e < offsets[curr + 1]; e++) {
+                int next = targets[e];
+                long candidate = base + weights[e];
+                if (candidate < dist[next] && !settled.get(next)) {
+                    dist[next] = candidate;
+                    parent[next] = curr;
+                    heap.insertOrDecrease(next, candidate);
+                }
+            }
+        }
+        return new ShortestPaths<>(graph, source, dist, parent);
+    }
+}
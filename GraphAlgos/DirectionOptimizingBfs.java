@@ -0,0 +1,208 @@
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A breadth first search over a CompactGraph that switches between top-down
+ * and bottom-up frontier expansion (Beamer et al.).
+ *
+ * A top-down step scans the out-edges of every frontier vertex. A bottom-up
+ * step instead scans the in-edges of every unvisited vertex and stops at the
+ * first parent found in the frontier, which skips most edge checks once the
+ * frontier covers a large part of the graph. The search moves to bottom-up
+ * when the frontier's out-edges outnumber the unexplored edges divided by
+ * {@link #ALPHA}, and back to top-down once the frontier shrinks below
+ * V / {@link #BETA} vertices.
+ *
+ * Visited state is kept in a bitset, so the search uses a bit per vertex on
+ * top of the level array it returns. The two frontier bitsets of the
+ * bottom-up steps are allocated on the first switch and reused after it.
+ */
+public final class DirectionOptimizingBfs {
+
+    /**
+     * Tuning constant for switching from top-down to bottom-up.
+     */
+    public static final int ALPHA = 15;
+
+    /**
+     * Tuning constant for switching from bottom-up back to top-down.
+     */
+    public static final int BETA = 18;
+
+    /**
+     * Level given to vertices that are not reachable from the source.
+     */
+    public static final int UNREACHED = -1;
+
+    /**
+     * Hidden constructor, this class only has static methods.
+     */
+    private DirectionOptimizingBfs() {
+    }
+
+    /**
+     * Finds the bfs level of every vertex, starting at the given vertex.
+     *
+     * @param <T>   the generic typing of the data
+     * @param start the vertex to begin the bfs on
+     * @param graph the compact graph to search through
+     * @return the level of every vertex indexed by id, 0 for start and
+     * {@link #UNREACHED} for vertices that cannot be reached
+     * @throws IllegalArgumentException if any input is null, or if start
+     *                                  doesn't exist in the graph
+     */
+    public static <T> int[] levels(Vertex<T> start, CompactGraph<T> graph) {
+        if (graph == null || start == null || graph.getId(start) < 0) {
+            throw new IllegalArgumentException("An input is null or the graph doesnt contain the start");
+        }
+        return levels(graph.getId(start), graph);
+    }
+
+    /**
+     * Finds the bfs level of every vertex, starting at the given vertex id.
+     *
+     * @param source the id of the vertex to begin the bfs on
+     * @param graph  the compact graph to search through
+     * @return the level of every vertex indexed by id, 0 for source and
+     * {@link #UNREACHED} for vertices that cannot be reached
+     * @throws IllegalArgumentException if the graph is null or the source is
+     *                                  not a vertex id of the graph
+     */
+    public static int[] levels(int source, CompactGraph<?> graph) {
+        if (graph == null || source < 0 || source >= graph.getVertexCount()) {
+            throw new IllegalArgumentException("The graph is null or the source is out of range");
+        }
+        int vertexCount = graph.getVertexCount();
+        int[] offsets = graph.getOffsets();
+        int[] level = new int[vertexCount];
+        Arrays.fill(level, UNREACHED);
+        BitSet visited = new BitSet(vertexCount);
+
+        int[] frontier = new int[vertexCount];
+        int[] next = new int[vertexCount];
+        int frontierSize = 1;
+        frontier[0] = source;
+        level[source] = 0;
+        visited.set(source);
+
+        long unexploredEdges = graph.getEdgeCount() - graph.getDegree(source);
+        long frontierEdges = graph.getDegree(source);
+        int depth = 0;
+        BitSet frontierBits = null;
+        BitSet nextBits = null;
+        while (frontierSize > 0) {
+            int nextSize;
+            if (frontierEdges > unexploredEdges / ALPHA) {
+                if (frontierBits == null) {
+                    frontierBits = new BitSet(vertexCount);
+                    nextBits = new BitSet(vertexCount);
+                } else {
+                    frontierBits.clear();
+                }
+                for (int i = 0; i < frontierSize; i++) {
+                    frontierBits.set(frontier[i]);
+                }
+                do {
+                    nextSize = bottomUpStep(graph.transpose(), frontierBits,
+                        nextBits, visited, level, depth + 1);
+                    BitSet swap = frontierBits;
+                    frontierBits = nextBits;
+                    nextBits = swap;
+                    depth++;
+                    frontierEdges = 0;
+                    for (int v = frontierBits.nextSetBit(0); v >= 0;
+                        v = frontierBits.nextSetBit(v + 1)) {
+                        frontierEdges += offsets[v + 1] - offsets[v];
+                    }
+                    unexploredEdges -= frontierEdges;
+                } while (nextSize >= vertexCount / BETA && nextSize > 0);
+                nextSize = 0;
+                for (int v = frontierBits.nextSetBit(0); v >= 0;
+                    v = frontierBits.nextSetBit(v + 1)) {
+                    next[nextSize++] = v;
+                }
+            } else {
+                nextSize = topDownStep(graph, frontier, frontierSize, next,
+                    visited, level, depth + 1);
+                depth++;
+                frontierEdges = 0;
+                for (int i = 0; i < nextSize; i++) {
+                    frontierEdges += offsets[next[i] + 1] - offsets[next[i]];
+                }
+                unexploredEdges -= frontierEdges;
+            }
+
+            int[] swap = frontier;
+            frontier = next;
+            next = swap;
+            frontierSize = nextSize;
+        }
+        return level;
+    }
+
+    /**
+     * Expands the frontier by scanning the out-edges of every frontier
+     * vertex.
+     *
+     * @param graph        the graph being searched
+     * @param frontier     the ids of the current frontier
+     * @param frontierSize the number of ids in the frontier
+     * @param next         the array to write the next frontier into
+     * @param visited      the visited vertices
+     * @param level        the level of every vertex
+     * @param depth        the level of the next frontier
+     * @return the size of the next frontier
+     */
+    private static int topDownStep(CompactGraph<?> graph, int[] frontier,
+        int frontierSize, int[] next, BitSet visited, int[] level, int depth) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int nextSize = 0;
+        for (int i = 0; i < frontierSize; i++) {
+            int curr = frontier[i];
+            for (int e = offsets[curr]; e < offsets[curr + 1]; e++) {
+                int v = targets[e];
+                if (!visited.get(v)) {
+                    visited.set(v);
+                    level[v] = depth;
+                    next[nextSize++] = v;
+                }
+            }
+        }
+        return nextSize;
+    }
+
+    /**
+     * Expands the frontier by looking for a frontier parent of every
+     * unvisited vertex.
+     *
+     * @param transpose    the transpose of the graph being searched
+     * @param frontierBits the current frontier
+     * @param next         the bitset to write the next frontier into
+     * @param visited      the visited vertices
+     * @param level        the level of every vertex
+     * @param depth        the level of the next frontier
+     * @return the size of the next frontier
+     */
+    private static int bottomUpStep(CompactGraph<?> transpose,
+        BitSet frontierBits, BitSet next, BitSet visited, int[] level,
+        int depth) {
+        int[] offsets = transpose.getOffsets();
+        int[] sources = transpose.getTargets();
+        next.clear();
+        int nextSize = 0;
+        for (int v = visited.nextClearBit(0); v < level.length;
+            v = visited.nextClearBit(v + 1)) {
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                if (frontierBits.get(sources[e])) {
+                    level[v] = depth;
+                    next.set(v);
+                    nextSize++;
+                    break;
+                }
+            }
+        }
+        visited.or(next);
+        return nextSize;
+    }
+}
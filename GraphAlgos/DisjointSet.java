@@ -1,5 +1,9 @@
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Class to store a DisjointSet data structure. This data structure has two
@@ -7,17 +11,25 @@ import java.util.Map;
  * DisjointSet. Calling find on two different T data will check if those two are
  * part of the same set. union will join two sets together if not already.
  *
+ * Each data is mapped once to an int id, and the sets themselves live in an
+ * {@link IntDisjointSet}, so every call costs a single hash lookup per data
+ * and no object is created per element beyond its id.
  *
  */
 public class DisjointSet<T> {
 
-    private Map<T, DisjointSetNode<T>> disjointSet;
+    private Map<T, Integer> ids;
+    private List<T> data;
+    private IntDisjointSet sets;
 
     /**
-     * Initializes the disjoint sets by lazily instantiating the HashMap
+     * Initializes empty disjoint sets: no data has an id yet, and the
+     * {@link IntDisjointSet} gets a new element whenever new data is seen.
      */
     public DisjointSet() {
-        disjointSet = new HashMap<>();
+        ids = new HashMap<>();
+        data = new ArrayList<>();
+        sets = new IntDisjointSet(0);
     }
 
     /**
@@ -39,68 +51,96 @@ public class DisjointSet<T> {
      * @return the disjoint set's root data
      */
     public T find(T data) {
-        if (disjointSet.containsKey(data)) {
-            return find(disjointSet.get(data)).getData();
-        } else {
-            disjointSet.put(data, new DisjointSetNode<>(data));
-            return find(disjointSet.get(data)).getData();
-        }
+        return this.data.get(sets.find(idOf(data)));
     }
 
     /**
-     * Recursively finds the root of the DisjointSetNode. Performs path
-     * compression such that all DisjointSetNodes along the path to the root
-     * will all directly point to the root.
+     * Attempts to join the two data into the same set by pointing the root
+     * of the smaller set to the root of the larger set. Puts either data in
+     * the disjoint sets if it does not already exist.
      *
-     * @param curr the current DisjointSetNode to find the root of
-     * @return the root of the current node
+     * @param first The first data to find the parent of
+     * @param second The second data to find the parent of
      */
-    private DisjointSetNode<T> find(DisjointSetNode<T> curr) {
-        DisjointSetNode<T> parent = curr.getParent();
-        if (parent == curr) {
-            return curr;
-        } else {
-            parent = find(curr.getParent());
-            curr.setParent(parent);
-            return parent;
-        }
+    public void union(T first, T second) {
+        sets.union(idOf(first), idOf(second));
     }
 
     /**
-     * Attempts to join the two data into the same set by pointing the parent
-     * of one set to the parent of another set.
+     * Gets the number of disjoint sets.
      *
-     * @param first The first data to find the parent of
-     * @param second The second data to find the parent of
+     * @return the number of sets
      */
-    public void union(T first, T second) {
-        union(disjointSet.get(first), disjointSet.get(second));
+    public int getComponentCount() {
+        return sets.getComponentCount();
     }
 
     /**
-     * This is where the work is done for union().  This method finds the
-     * roots of both passed in nodes and checks if they are the same root.
-     * If not the same root, the the root with the least rank will point
-     * the the node with higher rank using merge by rank.
+     * Gets the number of data in the set containing {@code data}. Puts the
+     * data in the disjoint sets if it does not already exist.
      *
-     * @param first The first DisjointSetNode to find the parent of
-     * @param second The second DisjointSetNode to find the parent of
+     * @param data the data to search for
+     * @return the size of its set
      */
-    private void union(DisjointSetNode<T> first, DisjointSetNode<T> second) {
-        // Finds parents
-        DisjointSetNode<T> firstParent = find(first);
-        DisjointSetNode<T> secondParent = find(second);
+    public int getComponentSize(T data) {
+        return sets.getComponentSize(idOf(data));
+    }
+
+    /**
+     * Checks if the data has been put in the disjoint sets.
+     *
+     * @param data the data to look for
+     * @return true if the data is in some set
+     */
+    public boolean contains(T data) {
+        return ids.containsKey(data);
+    }
 
-        // If parents are different (different sets)
-        if (firstParent != secondParent) {
-            if (firstParent.getRank() < secondParent.getRank()) {
-                firstParent.setParent(secondParent);
-            } else {
-                secondParent.setParent(firstParent);
-                if (firstParent.getRank() == secondParent.getRank()) {
-                    firstParent.setRank(firstParent.getRank() + 1);
-                }
-            }
+    /**
+     * Gets the number of data in all sets.
+     *
+     * @return the number of data
+     */
+    public int size() {
+        return this.data.size();
+    }
+
+    /**
+     * Points every data directly at the root of its set, so that the next
+     * find of any data takes a single step.
+     */
+    public void compact() {
+        sets.compact();
+    }
+
+    /**
+     * Groups the data by set.
+     *
+     * @return a new map from the root data of every set to the data in it
+     */
+    public Map<T, Set<T>> getComponents() {
+        Map<T, Set<T>> components = new HashMap<>();
+        for (int i = 0; i < this.data.size(); i++) {
+            components.computeIfAbsent(this.data.get(sets.find(i)),
+                root -> new HashSet<>()).add(this.data.get(i));
+        }
+        return components;
+    }
+
+    /**
+     * Gets the id of the data, giving it a new singleton set if it does not
+     * have one yet.
+     *
+     * @param data the data to look up
+     * @return its id
+     */
+    private int idOf(T data) {
+        Integer id = ids.get(data);
+        if (id == null) {
+            id = sets.add();
+            ids.put(data, id);
+            this.data.add(data);
         }
+        return id;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,268 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single-source shortest paths over a {@link MutableGraph} that are kept up
+ * to date as the graph changes, in the style of Ramalingam and Reps. Edge
+ * weights are non-negative, as the graph enforces.
+ *
+ * The first search is a full Dijkstra. After that, every edge change is
+ * repaired locally through the listener this object registers on the graph.
+ * An edge that got lighter (or was added) can only shorten paths through it,
+ * so if it improves its target, a Dijkstra seeded with just that target
+ * spreads the improvement and stops where distances stop dropping. An edge
+ * that got heavier (or was removed) only matters if it is in the shortest
+ * path tree; then the subtree under its target is the only part whose
+ * distances can grow, so those vertices are reset, each is seeded with its
+ * best in-edge from outside the subtree, and a Dijkstra over them finds
+ * their new distances.
+ *
+ * Either way only the vertices whose distance or parent may change are
+ * touched. This class is not thread-safe, and like the graph it must only
+ * be used from one thread at a time.
+ *
+ * @param <T> the generic typing of the data
+ */
+public class DynamicShortestPaths<T> {
+
+    private final MutableGraph<T> graph;
+    private final int source;
+    private final MutableGraph.EdgeListener listener = this::edgeChanged;
+    private long[] distance;
+    private int[] parent;
+    private int[] stamp;
+    private int[] subtree;
+    private IndexedDaryHeap heap;
+    private int generation;
+    private int lastRepairCount;
+
+    /**
+     * Runs a full search from the source and starts following the graph's
+     * changes.
+     *
+     * @param graph  the graph to search
+     * @param source the vertex to search from
+     * @throws IllegalArgumentException if any input is null or the graph
+     *                                  does not contain the source
+     */
+    public DynamicShortestPaths(MutableGraph<T> graph, Vertex<T> source) {
+        if (graph == null || source == null || graph.getId(source) < 0) {
+            throw new IllegalArgumentException("An input is null or the graph does not contain the source");
+        }
+        this.graph = graph;
+        this.source = graph.getId(source);
+        distance = new long[0];
+        parent = new int[0];
+        stamp = new int[0];
+        subtree = new int[0];
+        ensureCapacity(graph.getVertexCount());
+        distance[this.source] = 0;
+        heap.insertOrDecrease(this.source, 0);
+        lastRepairCount = propagate();
+        graph.addListener(listener);
+    }
+
+    /**
+     * Stops following the graph. The distances stay readable but go stale
+     * with the next change.
+     */
+    public void detach() {
+        graph.removeListener(listener);
+    }
+
+    /**
+     * Gets the source vertex.
+     *
+     * @return the source
+     */
+    public Vertex<T> getSource() {
+        return graph.getVertex(source);
+    }
+
+    /**
+     * Gets the distance from the source to a vertex.
+     *
+     * @param id the id of the vertex
+     * @return the distance, or {@link ShortestPaths#UNREACHABLE}
+     */
+    public long getDistance(int id) {
+        return id < distance.length ? distance[id] : ShortestPaths.UNREACHABLE;
+    }
+
+    /**
+     * Gets the distance from the source to a vertex.
+     *
+     * @param vertex the vertex
+     * @return the distance, or {@link ShortestPaths#UNREACHABLE} if it is
+     * not reachable or not in the graph
+     */
+    public long getDistance(Vertex<T> vertex) {
+        int id = graph.getId(vertex);
+        return id < 0 ? ShortestPaths.UNREACHABLE : getDistance(id);
+    }
+
+    /**
+     * Gets the parent of a vertex in the shortest path tree.
+     *
+     * @param id the id of the vertex
+     * @return the id of the parent, or {@link ShortestPaths#NO_PARENT} for
+     * the source and unreachable vertices
+     */
+    public int getParent(int id) {
+        return id < parent.length ? parent[id] : ShortestPaths.NO_PARENT;
+    }
+
+    /**
+     * Gets a shortest path from the source to a vertex.
+     *
+     * @param vertex the target of the path
+     * @return the path, with no vertices if the target is not reachable
+     */
+    public Path<T> getPath(Vertex<T> vertex) {
+        long dist = getDistance(vertex);
+        if (dist == ShortestPaths.UNREACHABLE) {
+            return new Path<>(dist, Collections.emptyList());
+        }
+        List<Vertex<T>> path = new ArrayList<>();
+        for (int v = graph.getId(vertex); v != ShortestPaths.NO_PARENT;
+            v = parent[v]) {
+            path.add(graph.getVertex(v));
+        }
+        Collections.reverse(path);
+        return new Path<>(dist, path);
+    }
+
+    /**
+     * Gets the number of vertices whose distance was settled by the last
+     * search or repair, which measures how local it was.
+     *
+     * @return the number of vertices touched
+     */
+    public int getLastRepairCount() {
+        return lastRepairCount;
+    }
+
+    /**
+     * Repairs the distances after an edge changed.
+     *
+     * @param u         the id of the source of the edge
+     * @param v         the id of the target of the edge
+     * @param oldWeight the weight before, or {@link MutableGraph#NO_EDGE}
+     * @param newWeight the weight after, or {@link MutableGraph#NO_EDGE}
+     */
+    private void edgeChanged(int u, int v, int oldWeight, int newWeight) {
+        ensureCapacity(graph.getVertexCount());
+        if (newWeight < oldWeight) {
+            lastRepairCount = 0;
+            if (distance[u] != ShortestPaths.UNREACHABLE
+                && distance[u] + newWeight < distance[v]) {
+                distance[v] = distance[u] + newWeight;
+                parent[v] = u;
+                heap.insertOrDecrease(v, distance[v]);
+                lastRepairCount = propagate();
+            }
+        } else if (parent[v] == u) {
+            lastRepairCount = repairSubtree(v);
+        } else {
+            lastRepairCount = 0;
+        }
+    }
+
+    /**
+     * Recomputes the distances of the shortest path tree under a vertex
+     * whose tree edge got heavier or was removed.
+     *
+     * @param root the id of the vertex whose tree edge changed
+     * @return the number of vertices settled
+     */
+    private int repairSubtree(int root) {
+        generation++;
+        if (generation == 0) {
+            Arrays.fill(stamp, 0);
+            generation = 1;
+        }
+        int size = 0;
+        subtree[size++] = root;
+        stamp[root] = generation;
+        for (int i = 0; i < size; i++) {
+            int curr = subtree[i];
+            for (int next : graph.getOutEdges(curr).keySet()) {
+                if (parent[next] == curr && stamp[next] != generation) {
+                    stamp[next] = generation;
+                    subtree[size++] = next;
+                }
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            distance[subtree[i]] = ShortestPaths.UNREACHABLE;
+            parent[subtree[i]] = ShortestPaths.NO_PARENT;
+        }
+        for (int i = 0; i < size; i++) {
+            int curr = subtree[i];
+            for (Map.Entry<Integer, Integer> edge
+                : graph.getInEdges(curr).entrySet()) {
+                int prev = edge.getKey();
+                if (stamp[prev] != generation
+                    && distance[prev] != ShortestPaths.UNREACHABLE
+                    && distance[prev] + edge.getValue() < distance[curr]) {
+                    distance[curr] = distance[prev] + edge.getValue();
+                    parent[curr] = prev;
+                }
+            }
+            if (distance[curr] != ShortestPaths.UNREACHABLE) {
+                heap.insertOrDecrease(curr, distance[curr]);
+            }
+        }
+        return propagate();
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from the vertices in the heap, lowering
+     * distances until none can be lowered.
+     *
+     * @return the number of vertices polled
+     */
+    private int propagate() {
+        int polled = 0;
+        while (!heap.isEmpty()) {
+            int curr = heap.poll();
+            polled++;
+            long base = distance[curr];
+            for (Map.Entry<Integer, Integer> edge
+                : graph.getOutEdges(curr).entrySet()) {
+                int next = edge.getKey();
+                long candidate = base + edge.getValue();
+                if (candidate < distance[next]) {
+                    distance[next] = candidate;
+                    parent[next] = curr;
+                    heap.insertOrDecrease(next, candidate);
+                }
+            }
+        }
+        return polled;
+    }
+
+    /**
+     * Grows the arrays to cover vertices added to the graph, which start out
+     * unreachable.
+     *
+     * @param vertexCount the number of vertices to cover
+     */
+    private void ensureCapacity(int vertexCount) {
+        int old = distance.length;
+        if (vertexCount <= old) {
+            return;
+        }
+        int capacity = Math.max(vertexCount, old * 2);
+        distance = Arrays.copyOf(distance, capacity);
+        parent = Arrays.copyOf(parent, capacity);
+        stamp = Arrays.copyOf(stamp, capacity);
+        subtree = new int[capacity];
+        Arrays.fill(distance, old, capacity, ShortestPaths.UNREACHABLE);
+        Arrays.fill(parent, old, capacity, ShortestPaths.NO_PARENT);
+        heap = new IndexedDaryHeap(capacity);
+    }
+}
@@ -0,0 +1,381 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Loads a text edge list straight into a {@link CompactGraph}, in parallel.
+ *
+ * Every line holds one directed edge as {@code u v w}: a source id, a target
+ * id and a weight, separated by spaces or tabs. The weight may be left out
+ * and is then 1. Blank lines and lines starting with {@code #} or {@code %}
+ * are skipped. Ids are ints in [0, Integer.MAX_VALUE - 1], the graph has
+ * max id + 1 vertices, and vertex i holds the data i. Weights are
+ * non-negative ints, as the shortest path and spanning tree algorithms
+ * assume, and a line with a negative weight is malformed.
+ *
+ * The file is cut into byte ranges that end on newlines, and each range is
+ * memory mapped and parsed on its own task straight from the bytes, without
+ * a String per line. The CSR arrays are then built with a counting sort by
+ * source: degrees are counted and edges scattered with atomic counters, and
+ * the edges of each source are put back in file order, so the result does
+ * not depend on the schedule. CSR arrays are int indexed, so a file may hold
+ * at most Integer.MAX_VALUE edges.
+ */
+public final class EdgeListLoader {
+
+    /**
+     * The target size of the byte range parsed by one task.
+     */
+    private static final int CHUNK_BYTES = 1 << 25;
+
+    /**
+     * Ranges of vertices or chunks at most this long are handled by a
+     * single task.
+     */
+    private static final int GRAIN = 1 << 12;
+
+    /**
+     * Hidden constructor, this class only has static methods.
+     */
+    private EdgeListLoader() {
+    }
+
+    /**
+     * Loads an edge list file on the common pool.
+     *
+     * @param file the file to load
+     * @return the graph the file describes
+     * @throws IOException if reading fails or a line is malformed
+     * @throws IllegalArgumentException if the file is null
+     */
+    public static CompactGraph<Integer> load(File file) throws IOException {
+        return load(file, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Loads an edge list file.
+     *
+     * @param file the file to load
+     * @param pool the pool to parse and sort on
+     * @return the graph the file describes
+     * @throws IOException if reading fails or a line is malformed
+     * @throws IllegalArgumentException if any input is null
+     */
+    public static CompactGraph<Integer> load(File file, ForkJoinPool pool)
+        throws IOException {
+        if (file == null || pool == null) {
+            throw new IllegalArgumentException("An input is null");
+        }
+        Chunk[] chunks;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+            FileChannel channel = raf.getChannel()) {
+            long[] bounds = splitOnNewlines(channel);
+            chunks = new Chunk[bounds.length - 1];
+            for (int c = 0; c < chunks.length; c++) {
+                chunks[c] = new Chunk(channel.map(
+                    FileChannel.MapMode.READ_ONLY, bounds[c],
+                    bounds[c + 1] - bounds[c]), bounds[c]);
+            }
+            try {
+                ParallelFor.forEach(pool, chunks.length,
+                    c -> chunks[c].parse(), 1);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+
+        int[] bases = new int[chunks.length + 1];
+        int maxId = -1;
+        for (int c = 0; c < chunks.length; c++) {
+            long base = (long) bases[c] + chunks[c].count;
+            if (base > Integer.MAX_VALUE) {
+                throw new IOException("The file holds more than Integer.MAX_VALUE edges.");
+            }
+            bases[c + 1] = (int) base;
+            maxId = Math.max(maxId, chunks[c].maxId);
+        }
+        int vertexCount = maxId + 1;
+        int edgeCount = bases[chunks.length];
+
+        AtomicIntegerArray degrees = new AtomicIntegerArray(vertexCount);
+        ParallelFor.forEach(pool, chunks.length, c -> {
+            for (int i = 0; i < chunks[c].count; i++) {
+                degrees.incrementAndGet(chunks[c].sources[i]);
+            }
+        }, 1);
+        int[] offsets = new int[vertexCount + 1];
+        for (int v = 0; v < vertexCount; v++) {
+            offsets[v + 1] = offsets[v] + degrees.get(v);
+        }
+        AtomicIntegerArray cursors = degrees;
+        for (int v = 0; v < vertexCount; v++) {
+            cursors.set(v, offsets[v]);
+        }
+        int[] order = new int[edgeCount];
+        ParallelFor.forEach(pool, chunks.length, c -> {
+            for (int i = 0; i < chunks[c].count; i++) {
+                order[cursors.getAndIncrement(chunks[c].sources[i])] =
+                    bases[c] + i;
+            }
+        }, 1);
+
+        int[] targets = new int[edgeCount];
+        int[] weights = new int[edgeCount];
+        ParallelFor.forEach(pool, vertexCount, v -> {
+            Arrays.sort(order, offsets[v], offsets[v + 1]);
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                int c = chunkOf(bases, order[e]);
+                int i = order[e] - bases[c];
+                targets[e] = chunks[c].targets[i];
+                weights[e] = chunks[c].weights[i];
+            }
+        }, GRAIN);
+
+        List<Vertex<Integer>> vertices = new ArrayList<>(vertexCount);
+        for (int v = 0; v < vertexCount; v++) {
+            vertices.add(new Vertex<>(v));
+        }
+        return new CompactGraph<>(vertices, offsets, targets, weights);
+    }
+
+    /**
+     * Cuts a file into ranges of about {@link #CHUNK_BYTES} that each end
+     * right after a newline or at the end of the file.
+     *
+     * @param channel the file to cut
+     * @return the range bounds, from 0 to the file size
+     * @throws IOException if reading fails
+     */
+    private static long[] splitOnNewlines(FileChannel channel)
+        throws IOException {
+        long size = channel.size();
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long position = CHUNK_BYTES;
+        while (position < size) {
+            long newline = -1;
+            long scan = position;
+            while (newline < 0 && scan < size) {
+                probe.clear();
+                int read = channel.read(probe, scan);
+                for (int i = 0; i < read && newline < 0; i++) {
+                    if (probe.get(i) == '\n') {
+                        newline = scan + i;
+                    }
+                }
+                scan += Math.max(read, 0);
+            }
+            if (newline < 0) {
+                break;
+            }
+            bounds.add(newline + 1);
+            position = newline + 1 + CHUNK_BYTES;
+        }
+        if (bounds.get(bounds.size() - 1) < size) {
+            bounds.add(size);
+        }
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Finds the chunk that holds an edge.
+     *
+     * @param bases the index of the first edge of every chunk, then the
+     *              edge count
+     * @param edge  the index of the edge in file order
+     * @return the index of its chunk
+     */
+    private static int chunkOf(int[] bases, int edge) {
+        int lo = 0;
+        int hi = bases.length - 2;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (bases[mid] <= edge) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * The edges parsed from one byte range of the file.
+     */
+    private static final class Chunk {
+
+        private final MappedByteBuffer bytes;
+        private final long start;
+        private int[] sources;
+        private int[] targets;
+        private int[] weights;
+        private int count;
+        private int maxId = -1;
+
+        /**
+         * Creates an unparsed chunk.
+         *
+         * @param bytes the mapped bytes of the range
+         * @param start the file position of the range
+         */
+        Chunk(MappedByteBuffer bytes, long start) {
+            this.bytes = bytes;
+            this.start = start;
+        }
+
+        /**
+         * Parses every line of the range.
+         *
+         * @throws UncheckedIOException if a line is malformed
+         */
+        void parse() {
+            int capacity = Math.max(16, bytes.limit() / 8);
+            sources = new int[capacity];
+            targets = new int[capacity];
+            weights = new int[capacity];
+            int limit = bytes.limit();
+            int pos = 0;
+            long[] field = new long[3];
+            while (pos < limit) {
+                pos = skipBlanks(pos);
+                if (pos >= limit) {
+                    break;
+                }
+                byte b = bytes.get(pos);
+                if (b == '\n') {
+                    pos++;
+                    continue;
+                }
+                if (b == '#' || b == '%') {
+                    while (pos < limit && bytes.get(pos) != '\n') {
+                        pos++;
+                    }
+                    continue;
+                }
+                int fields = 0;
+                while (pos < limit && bytes.get(pos) != '\n') {
+                    if (fields == 3) {
+                        throw malformed(pos);
+                    }
+                    pos = readNumber(pos, field, fields++);
+                    pos = skipBlanks(pos);
+                }
+                if (fields < 2 || !isId(field[0]) || !isId(field[1])
+                    || fields == 3 && field[2] < 0) {
+                    throw malformed(pos);
+                }
+                add((int) field[0], (int) field[1],
+                    fields == 3 ? (int) field[2] : 1);
+            }
+        }
+
+        /**
+         * Checks if a number can be a vertex id, leaving room for the
+         * vertex count max id + 1 to fit in an int.
+         *
+         * @param value the number read
+         * @return true if the number is in [0, Integer.MAX_VALUE - 1]
+         */
+        private boolean isId(long value) {
+            return value >= 0 && value < Integer.MAX_VALUE;
+        }
+
+        /**
+         * Stores one edge.
+         *
+         * @param u the source id
+         * @param v the target id
+         * @param w the weight
+         */
+        private void add(int u, int v, int w) {
+            if (count == sources.length) {
+                sources = Arrays.copyOf(sources, count * 2);
+                targets = Arrays.copyOf(targets, count * 2);
+                weights = Arrays.copyOf(weights, count * 2);
+            }
+            sources[count] = u;
+            targets[count] = v;
+            weights[count] = w;
+            count++;
+            maxId = Math.max(maxId, Math.max(u, v));
+        }
+
+        /**
+         * Skips spaces, tabs and carriage returns.
+         *
+         * @param pos the position to start at
+         * @return the position of the next other byte, or the limit
+         */
+        private int skipBlanks(int pos) {
+            while (pos < bytes.limit()) {
+                byte b = bytes.get(pos);
+                if (b != ' ' && b != '\t' && b != '\r') {
+                    break;
+                }
+                pos++;
+            }
+            return pos;
+        }
+
+        /**
+         * Reads a signed int.
+         *
+         * @param pos   the position of its first byte
+         * @param field where to store the number
+         * @param index the slot of field to store it in
+         * @return the position right after the number
+         * @throws UncheckedIOException if there is no number at pos or it
+         *                              does not fit in an int
+         */
+        private int readNumber(int pos, long[] field, int index) {
+            boolean negative = pos < bytes.limit() && bytes.get(pos) == '-';
+            if (negative) {
+                pos++;
+            }
+            int first = pos;
+            long value = 0;
+            while (pos < bytes.limit()) {
+                int digit = bytes.get(pos) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                value = value * 10 + digit;
+                if (value > Integer.MAX_VALUE + 1L) {
+                    throw malformed(pos);
+                }
+                pos++;
+            }
+            value = negative ? -value : value;
+            if (pos == first || value > Integer.MAX_VALUE) {
+                throw malformed(pos);
+            }
+            field[index] = value;
+            return pos;
+        }
+
+        /**
+         * Creates the error for a malformed line.
+         *
+         * @param pos the position in the range where parsing failed
+         * @return the error to throw
+         */
+        private UncheckedIOException malformed(int pos) {
+            return new UncheckedIOException(new IOException(
+                "Malformed edge list line near byte " + (start + pos)));
+        }
+    }
+}
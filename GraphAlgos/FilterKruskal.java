@@ -0,0 +1,255 @@
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntPredicate;
+
+/**
+ * Kruskal's algorithm over a CompactGraph in the Filter-Kruskal form
+ * (Osipov, Sanders and Singler). Instead of sorting every edge up front, the
+ * edges are split around a sampled pivot weight; the light half is solved
+ * first, and the heavy half is then filtered down to the edges whose ends
+ * are still in different components before it is solved in turn. Only
+ * ranges that are small enough are radix sorted, so on dense graphs most
+ * heavy edges are dropped by the filter without ever being sorted.
+ *
+ * Partitioning and filtering run on a ForkJoin pool. The filter only reads
+ * the disjoint set, which is safe because sets are only joined between
+ * parallel steps. Edges are kept in index order within every range, so the
+ * tree found is the same one the sequential
+ * {@link GraphAlgorithms#kruskals(CompactGraph)} finds.
+ *
+ * @param <T> the generic typing of the data
+ */
+public final class FilterKruskal<T> {
+
+    /**
+     * Ranges with at most this many edges are sorted and scanned directly.
+     */
+    private static final int BASE_SIZE = 1 << 12;
+
+    /**
+     * Ranges at most this long are partitioned or filtered by a single task.
+     */
+    private static final int GRAIN = 1 << 13;
+
+    /**
+     * The number of weights sampled to pick a pivot.
+     */
+    private static final int SAMPLES = 31;
+
+    private final CompactGraph<T> graph;
+    private final ForkJoinPool pool;
+    private final int[] sources;
+    private final int[] targets;
+    private final int[] weights;
+    private final IntDisjointSet ds;
+    private final Set<Edge<T>> mst = new HashSet<>();
+    private int accepted;
+
+    /**
+     * Creates the state of one run.
+     *
+     * @param graph the compact graph to span
+     * @param pool  the pool to partition and filter on
+     */
+    private FilterKruskal(CompactGraph<T> graph, ForkJoinPool pool) {
+        this.graph = graph;
+        this.pool = pool;
+        int[] offsets = graph.getOffsets();
+        targets = graph.getTargets();
+        weights = graph.getWeights();
+        sources = new int[graph.getEdgeCount()];
+        for (int u = 0; u < graph.getVertexCount(); u++) {
+            Arrays.fill(sources, offsets[u], offsets[u + 1], u);
+        }
+        ds = new IntDisjointSet(graph.getVertexCount());
+    }
+
+    /**
+     * Finds the Minimal Spanning Tree (MST) of a compact graph on the common
+     * pool. The same assumptions as
+     * {@link GraphAlgorithms#kruskals(CompactGraph)} apply.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the compact graph to span
+     * @return the MST of the graph or null if there is no valid MST
+     * @throws IllegalArgumentException if the graph is null
+     */
+    public static <T> Set<Edge<T>> mst(CompactGraph<T> graph) {
+        return mst(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Finds the Minimal Spanning Tree (MST) of a compact graph. The returned
+     * set contains both directions of every MST edge.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the compact graph to span
+     * @param pool  the pool to partition and filter on
+     * @return the MST of the graph or null if there is no valid MST
+     * @throws IllegalArgumentException if any input is null
+     */
+    public static <T> Set<Edge<T>> mst(CompactGraph<T> graph,
+        ForkJoinPool pool) {
+        if (graph == null || pool == null) {
+            throw new IllegalArgumentException("An input is null");
+        }
+        FilterKruskal<T> run = new FilterKruskal<>(graph, pool);
+        int[] edges = new int[graph.getEdgeCount()];
+        for (int e = 0; e < edges.length; e++) {
+            edges[e] = e;
+        }
+        run.solve(edges);
+        if (run.accepted < graph.getVertexCount() - 1) {
+            return null;
+        }
+        return run.mst;
+    }
+
+    /**
+     * Adds the MST edges among the given edges, which must all be at least
+     * as heavy as every edge solved before.
+     *
+     * @param edges the edge indices to solve, in index order
+     */
+    private void solve(int[] edges) {
+        if (isDone() || edges.length == 0) {
+            return;
+        }
+        if (edges.length <= BASE_SIZE) {
+            kruskal(edges);
+            return;
+        }
+        int pivot = pivot(edges);
+        int[] light = select(edges, e -> weights[e] <= pivot);
+        boolean strict = light.length == edges.length;
+        if (strict) {
+            light = select(edges, e -> weights[e] < pivot);
+        }
+        if (light.length == 0 || light.length == edges.length) {
+            kruskal(edges);
+            return;
+        }
+        solve(light);
+        light = null;
+        if (isDone()) {
+            return;
+        }
+        solve(select(edges, e -> (strict ? weights[e] >= pivot
+            : weights[e] > pivot)
+            && ds.root(sources[e]) != ds.root(targets[e])));
+    }
+
+    /**
+     * Radix sorts a range of edges by weight and scans it in order.
+     *
+     * @param edges the edge indices to scan, in index order
+     */
+    private void kruskal(int[] edges) {
+        int[] keys = new int[edges.length];
+        for (int i = 0; i < edges.length; i++) {
+            keys[i] = weights[edges[i]];
+        }
+        int[] order = RadixSort.sortedOrder(keys);
+        for (int i = 0; i < order.length && !isDone(); i++) {
+            int e = edges[order[i]];
+            if (ds.union(sources[e], targets[e])) {
+                accepted++;
+                Vertex<T> u = graph.getVertex(sources[e]);
+                Vertex<T> v = graph.getVertex(targets[e]);
+                mst.add(new Edge<>(u, v, weights[e]));
+                mst.add(new Edge<>(v, u, weights[e]));
+            }
+        }
+    }
+
+    /**
+     * Checks if the tree already spans the graph.
+     *
+     * @return true if V - 1 edges have been accepted
+     */
+    private boolean isDone() {
+        return accepted >= graph.getVertexCount() - 1;
+    }
+
+    /**
+     * Picks the median weight of evenly spaced samples of the edges.
+     *
+     * @param edges the edge indices to sample
+     * @return the pivot weight
+     */
+    private int pivot(int[] edges) {
+        int[] sample = new int[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            sample[i] = weights[edges[(int) ((long) i * edges.length
+                / SAMPLES)]];
+        }
+        Arrays.sort(sample);
+        return sample[SAMPLES / 2];
+    }
+
+    /**
+     * Keeps the edges that pass a test, in parallel.
+     *
+     * @param edges the edge indices to test
+     * @param keep  the test
+     * @return the edges that passed, in their original order
+     */
+    private int[] select(int[] edges, IntPredicate keep) {
+        return pool.invoke(new Select(edges, 0, edges.length, keep));
+    }
+
+    /**
+     * Keeps the edges of a range that pass a test, in order.
+     */
+    private static final class Select extends RecursiveTask<int[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] edges;
+        private final int lo;
+        private final int hi;
+        private final IntPredicate keep;
+
+        /**
+         * Creates a task over edges[lo, hi).
+         *
+         * @param edges the edge indices to test
+         * @param lo    the first position to test
+         * @param hi    one past the last position to test
+         * @param keep  the test
+         */
+        Select(int[] edges, int lo, int hi, IntPredicate keep) {
+            this.edges = edges;
+            this.lo = lo;
+            this.hi = hi;
+            this.keep = keep;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                Select left = new Select(edges, lo, mid, keep);
+                left.fork();
+                int[] right = new Select(edges, mid, hi, keep).compute();
+                int[] leftResult = left.join();
+                int[] merged = Arrays.copyOf(leftResult,
+                    leftResult.length + right.length);
+                System.arraycopy(right, 0, merged, leftResult.length,
+                    right.length);
+                return merged;
+            }
+            int[] kept = new int[hi - lo];
+            int count = 0;
+            for (int i = lo; i < hi; i++) {
+                if (keep.test(edges[i])) {
+                    kept[count++] = edges[i];
+                }
+            }
+            return count == kept.length ? kept : Arrays.copyOf(kept, count);
+        }
+    }
+}
@@ -1,12 +1,11 @@
+import java.nio.IntBuffer;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 import java.util.Map;
-import java.util.Queue;
 import java.util.ArrayList;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.PriorityQueue;
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Your implementation of various different graph algorithms.
@@ -17,6 +16,18 @@ import java.util.HashSet;
  */
 public class GraphAlgorithms {
 
+    /**
+     * Below this ratio of edges to V * (V - 1), minimumSpanningTree uses
+     * Kruskal's.
+     */
+    private static final double SPARSE_DENSITY = 0.01;
+
+    /**
+     * At or above this ratio of edges to V * (V - 1), minimumSpanningTree
+     * uses the array scan Prim's.
+     */
+    private static final double DENSE_DENSITY = 0.25;
+
     /**
      * Performs a breadth first search (bfs) on the input graph, starting at
      * the parameterized starting vertex.
@@ -32,6 +43,10 @@ public class GraphAlgorithms {
      * adjacency list from graph. DO NOT create new instances of Map
      * for BFS (storing the adjacency list in a variable is fine).
      *
+     * The search runs on the int ids of a compact copy of the graph (see
+     * {@link VertexIndex}), so vertices are only hashed while the copy is
+     * built, not once per edge visited.
+     *
      * DO NOT modify the structure of the graph. The graph should be unmodified
      * after this method terminates.
      *
@@ -46,20 +61,42 @@ public class GraphAlgorithms {
         if (graph == null || start == null || !graph.getVertices().contains(start)) {
             throw new IllegalArgumentException("An input is null or the graph doesnt contain the start");
         }
-        List<Vertex<T>> visitedList = new ArrayList<>();
-        Queue<Vertex<T>> vertexQueue = new ConcurrentLinkedQueue<>();
-        visitedList.add(start);
-        vertexQueue.add(start);
-        while (!vertexQueue.isEmpty()) {
-            Vertex<T> curr = vertexQueue.poll();
-            for (VertexDistance j: graph.getAdjList().get(curr)) {
-                if (!visitedList.contains(j.getVertex())) {
-                    vertexQueue.add(j.getVertex());
-                    visitedList.add(j.getVertex());
+        return bfs(start, new CompactGraph<>(graph));
+    }
+
+    /**
+     * Performs a breadth first search (bfs) on a compact graph, starting at
+     * the parameterized starting vertex. Neighbors are explored in the order
+     * of the adjacency list the compact graph was built from.
+     *
+     * @param <T>   the generic typing of the data
+     * @param start the vertex to begin the bfs on
+     * @param graph the compact graph to search through
+     * @return list of vertices in visited order
+     * @throws IllegalArgumentException if any input is null, or if start
+     *                                  doesn't exist in the graph
+     */
+    public static <T> List<Vertex<T>> bfs(Vertex<T> start, CompactGraph<T> graph) {
+        int source = idOf(start, graph);
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        boolean[] visited = new boolean[graph.getVertexCount()];
+        int[] queue = new int[graph.getVertexCount()];
+        int head = 0;
+        int tail = 0;
+        visited[source] = true;
+        queue[tail++] = source;
+        while (head < tail) {
+            int curr = queue[head++];
+            for (int e = offsets[curr]; e < offsets[curr + 1]; e++) {
+                int next = targets[e];
+                if (!visited[next]) {
+                    visited[next] = true;
+                    queue[tail++] = next;
                 }
             }
         }
-        return visitedList;
+        return toVertices(queue, tail, graph);
     }
 
     /**
@@ -67,18 +104,11 @@ public class GraphAlgorithms {
      * the parameterized starting vertex.
      *
      * When exploring a vertex, explore in the order of neighbors returned by
-     * the adjacency list. Failure to do so may cause you to lose points.
+     * the adjacency list.
      *
-     * *NOTE* You MUST implement this method recursively, or else you will lose
-     * all points for this method.
-     *
-     * You may import/use java.util.Set, java.util.List, and
-     * any classes that implement the aforementioned interfaces, as long as they
-     * are efficient.
-     *
-     * The only instance of java.util.Map that you may use is the
-     * adjacency list from graph. DO NOT create new instances of Map
-     * for DFS (storing the adjacency list in a variable is fine).
+     * The search runs without recursion over a compact copy of the graph, so
+     * long path-like graphs cannot overflow the call stack, and visited
+     * vertices are tracked in a bitset instead of the visited list.
      *
      * DO NOT modify the structure of the graph. The graph should be unmodified
      * after this method terminates.
@@ -94,25 +124,30 @@ public class GraphAlgorithms {
         if (graph == null || start == null || !graph.getVertices().contains(start)) {
             throw new IllegalArgumentException("An input is null or the graph doesn't contain the start");
         }
-        List<Vertex<T>> visited = new ArrayList<>();
-        dfsHelper(start, graph, visited);
-        return visited;
+        return dfs(start, new CompactGraph<>(graph));
     }
 
     /**
+     * Performs a depth first search (dfs) on a compact graph, starting at
+     * the parameterized starting vertex. The search is driven by a
+     * {@link DepthFirstIterator}, which keeps its own stack of vertices and
+     * edge cursors instead of recursing. The visit order is the same as the
+     * recursive dfs.
      *
-     * @param start vertex where current call is
-     * @param graph graph being traversed
-     * @param visitedList list of visited vertices
-     * @param <T> generic type of vertices
+     * @param <T>   the generic typing of the data
+     * @param start the vertex to begin the dfs on
+     * @param graph the compact graph to search through
+     * @return list of vertices in visited order
+     * @throws IllegalArgumentException if any input is null, or if start
+     *                                  doesn't exist in the graph
      */
-    public static <T> void dfsHelper(Vertex<T> start, Graph<T> graph, List<Vertex<T>> visitedList) {
-        visitedList.add(start);
-        for (VertexDistance j: graph.getAdjList().get(start)) {
-            if (!visitedList.contains(j.getVertex())) {
-                dfsHelper(j.getVertex(), graph, visitedList);
-            }
+    public static <T> List<Vertex<T>> dfs(Vertex<T> start, CompactGraph<T> graph) {
+        DepthFirstIterator search = new DepthFirstIterator(graph, idOf(start, graph));
+        List<Vertex<T>> visited = new ArrayList<>();
+        while (search.hasNext()) {
+            visited.add(graph.getVertex(search.nextInt()));
         }
+        return visited;
     }
 
     /**
@@ -125,16 +160,10 @@ public class GraphAlgorithms {
      * to that node from start, or Integer.MAX_VALUE (representing
      * infinity) if no path exists.
      *
-     * You may import/use java.util.PriorityQueue,
-     * java.util.Map, and java.util.Set and any class that
-     * implements the aforementioned interfaces, as long as your use of it
-     * is efficient as possible.
-     *
-     * You should implement the version of Dijkstra's where you use two
-     * termination conditions in conjunction.
-     *
-     * 1) Check if all of the vertices have been visited.
-     * 2) Check if the PQ is empty yet.
+     * The search runs over a compact copy of the graph with an indexed d-ary
+     * heap (see {@link Dijkstra}), and a distance is only final once its
+     * vertex is polled from the heap. The returned map is a read-only view
+     * over the primitive distance array.
      *
      * DO NOT modify the structure of the graph. The graph should be unmodified
      * after this method terminates.
@@ -151,22 +180,160 @@ public class GraphAlgorithms {
         if (graph == null || start == null || !graph.getVertices().contains(start)) {
             throw new IllegalArgumentException("An input is null or the graph does not contain the start");
         }
-        Map<Vertex<T>, Integer> shortestpath = new HashMap<>();
-        PriorityQueue<VertexDistance<T>> vertexQueue = new PriorityQueue();
-        vertexQueue.add(new VertexDistance<>(start, 0));
-        shortestpath.put(start, 0);
-        while (!vertexQueue.isEmpty() && shortestpath.size() < graph.getVertices().size() - 1) {
-            VertexDistance<T> curr = vertexQueue.remove();
-            for (VertexDistance j: graph.getAdjList().get(curr.getVertex())) {
-                if (!shortestpath.containsKey(j.getVertex())) {
-                    vertexQueue.add(new VertexDistance<>(j.getVertex(), j.getDistance() + curr.getDistance()));
-                    shortestpath.put(j.getVertex(), j.getDistance() + curr.getDistance());
+        return dijkstras(start, new CompactGraph<>(graph));
+    }
+
+    /**
+     * Finds the single-source shortest distance between the start vertex and
+     * all vertices of a compact graph (you may assume non-negative edge
+     * weights). Use {@link Dijkstra} directly to get the primitive distances
+     * and the shortest path tree.
+     *
+     * @param <T>   the generic typing of the data
+     * @param start the vertex to begin the Dijkstra's on (source)
+     * @param graph the compact graph we are applying Dijkstra's to
+     * @return a map of the shortest distances from start to every
+     * other node in the graph, with Integer.MAX_VALUE for unreachable nodes
+     * @throws IllegalArgumentException if any input is null, or if start
+     *                                  doesn't exist in the graph.
+     */
+    public static <T> Map<Vertex<T>, Integer> dijkstras(Vertex<T> start, CompactGraph<T> graph) {
+        return Dijkstra.run(start, graph).asMap();
+    }
+
+    /**
+     * Performs a breadth first search directly over the mapped buffers of a
+     * graph file, without loading it onto the heap.
+     *
+     * @param start the id of the vertex to begin the bfs on
+     * @param graph the mapped graph to search through
+     * @return the ids of the vertices in visited order
+     * @throws IllegalArgumentException if the graph is null or start is not
+     *                                  a vertex id of the graph
+     */
+    public static int[] bfs(int start, MappedGraph graph) {
+        checkMappedStart(start, graph);
+        IntBuffer offsets = graph.getOffsets();
+        IntBuffer targets = graph.getTargets();
+        boolean[] visited = new boolean[graph.getVertexCount()];
+        int[] queue = new int[graph.getVertexCount()];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        visited[start] = true;
+        while (head < tail) {
+            int curr = queue[head++];
+            for (int e = offsets.get(curr); e < offsets.get(curr + 1); e++) {
+                int next = targets.get(e);
+                if (!visited[next]) {
+                    visited[next] = true;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return Arrays.copyOf(queue, tail);
+    }
+
+    /**
+     * Finds the single-source shortest distance between the start vertex and
+     * all vertices directly over the mapped buffers of a graph file (you may
+     * assume non-negative edge weights).
+     *
+     * @param start the id of the vertex to begin the Dijkstra's on (source)
+     * @param graph the mapped graph we are applying Dijkstra's to
+     * @return the distance of every vertex indexed by id, or
+     * {@link ShortestPaths#UNREACHABLE}
+     * @throws IllegalArgumentException if the graph is null or start is not
+     *                                  a vertex id of the graph
+     */
+    public static long[] dijkstras(int start, MappedGraph graph) {
+        checkMappedStart(start, graph);
+        IntBuffer offsets = graph.getOffsets();
+        IntBuffer targets = graph.getTargets();
+        IntBuffer weights = graph.getWeights();
+        long[] dist = new long[graph.getVertexCount()];
+        Arrays.fill(dist, ShortestPaths.UNREACHABLE);
+        boolean[] settled = new boolean[graph.getVertexCount()];
+        IndexedDaryHeap heap = new IndexedDaryHeap(graph.getVertexCount());
+        dist[start] = 0;
+        heap.insertOrDecrease(start, 0);
+        while (!heap.isEmpty()) {
+            int curr = heap.poll();
+            settled[curr] = true;
+            for (int e = offsets.get(curr); e < offsets.get(curr + 1); e++) {
+                int next = targets.get(e);
+                long candidate = dist[curr] + weights.get(e);
+                if (!settled[next] && candidate < dist[next]) {
+                    dist[next] = candidate;
+                    heap.insertOrDecrease(next, candidate);
                 }
             }
         }
-        return shortestpath;
+        return dist;
+    }
 
+    /**
+     * Finds the single-source shortest distance between the start vertex and
+     * all vertices of a compact graph using every core of the common
+     * ForkJoinPool (you may assume non-negative edge weights). The search is
+     * a delta-stepping run with the bucket width chosen by
+     * {@link DeltaStepping#defaultDelta(CompactGraph)}; use
+     * {@link DeltaStepping} directly to tune delta or choose the pool.
+     *
+     * @param <T>   the generic typing of the data
+     * @param start the vertex to begin the search on (source)
+     * @param graph the compact graph to search through
+     * @return a map of the shortest distances from start to every
+     * other node in the graph, with Integer.MAX_VALUE for unreachable nodes
+     * @throws IllegalArgumentException if any input is null, or if start
+     *                                  doesn't exist in the graph.
+     */
+    public static <T> Map<Vertex<T>, Integer> deltaStepping(Vertex<T> start, CompactGraph<T> graph) {
+        return DeltaStepping.run(start, graph).asMap();
+    }
 
+    /**
+     * Finds a shortest path from source to target in a compact graph (you
+     * may assume non-negative edge weights). The query runs a bidirectional
+     * Dijkstra over the graph and its transpose, which is built once and
+     * cached by the graph, and stops as soon as the two searches prove the
+     * best meeting point, so it settles far fewer vertices than
+     * {@link #dijkstras(Vertex, CompactGraph)}.
+     *
+     * @param <T>    the generic typing of the data
+     * @param source the vertex the path starts at
+     * @param target the vertex the path ends at
+     * @param graph  the compact graph to search through
+     * @return the distance and vertices of a shortest path, or a path with
+     * distance {@link ShortestPaths#UNREACHABLE} and no vertices if there is
+     * none
+     * @throws IllegalArgumentException if any input is null, or if source or
+     *                                  target doesn't exist in the graph
+     */
+    public static <T> Path<T> shortestPath(Vertex<T> source, Vertex<T> target, CompactGraph<T> graph) {
+        return PointToPointSearch.bidirectional(idOf(source, graph), idOf(target, graph), graph);
+    }
+
+    /**
+     * Finds a shortest path from source to target in a compact graph with
+     * A*, guided by the given heuristic. The heuristic must be admissible
+     * (never overestimate the remaining distance) for the path to be a
+     * shortest one.
+     *
+     * @param <T>       the generic typing of the data
+     * @param source    the vertex the path starts at
+     * @param target    the vertex the path ends at
+     * @param graph     the compact graph to search through
+     * @param heuristic the estimate of the remaining distance to target
+     * @return the distance and vertices of a shortest path, or a path with
+     * distance {@link ShortestPaths#UNREACHABLE} and no vertices if there is
+     * none
+     * @throws IllegalArgumentException if any input is null, or if source or
+     *                                  target doesn't exist in the graph
+     */
+    public static <T> Path<T> shortestPath(Vertex<T> source, Vertex<T> target, CompactGraph<T> graph,
+        Heuristic<T> heuristic) {
+        return PointToPointSearch.aStar(idOf(source, graph), idOf(target, graph), graph, heuristic);
     }
 
     /**
@@ -190,7 +357,7 @@ public class GraphAlgorithms {
      * provided for you. A Disjoint Set will keep track of which vertices are
      * connected given the edges in your current MST, allowing you to easily
      * figure out whether adding an edge will create a cycle. Refer
-     * to the DisjointSet and DisjointSetNode classes that
+     * to the DisjointSet and IntDisjointSet classes that
      * have been provided to you for more information.
      *
      * You should NOT allow self-loops or parallel edges into the MST.
@@ -202,6 +369,9 @@ public class GraphAlgorithms {
      * java.util.Set, and any class that implements the aforementioned
      * interfaces.
      *
+     * Edges are sorted and cycles detected on the int ids of a compact copy
+     * of the graph, see {@link #kruskals(CompactGraph)}.
+     *
      * DO NOT modify the structure of the graph. The graph should be unmodified
      * after this method terminates.
      *
@@ -214,27 +384,316 @@ public class GraphAlgorithms {
         if (graph == null) {
             throw new IllegalArgumentException("the graph is null");
         }
-        DisjointSet<Vertex<T>> ds = new DisjointSet<>();
-        PriorityQueue<Edge<T>> pq = new PriorityQueue<>(graph.getEdges());
-        Set<Edge<T>> mst = new HashSet<>();
+        return kruskals(new CompactGraph<>(graph));
+    }
 
-        //put each edge into disjoint set
-        for (Vertex<T> vertex: graph.getVertices()) {
-            ds.find(vertex);
+    /**
+     * Runs Kruskal's algorithm on a compact graph and returns the Minimal
+     * Spanning Tree (MST) in the form of a set of Edges, or null if the graph
+     * is disconnected. The same assumptions as the Graph version apply: the
+     * graph is undirected, so every edge is stored in both directions, and
+     * the returned set contains both directions of every MST edge.
+     *
+     * Edge weights are radix sorted into a permutation of edge indices (see
+     * {@link RadixSort}) and cycles are detected with an
+     * {@link IntDisjointSet}, so no per-edge objects are created other than
+     * the MST edges themselves. The scan stops as soon as V - 1 edges have
+     * been accepted.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the compact graph we are applying Kruskals to
+     * @return the MST of the graph or null if there is no valid MST
+     * @throws IllegalArgumentException if any input is null
+     */
+    public static <T> Set<Edge<T>> kruskals(CompactGraph<T> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("the graph is null");
         }
+        int vertexCount = graph.getVertexCount();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getWeights();
+        int[] sources = new int[graph.getEdgeCount()];
+        for (int u = 0; u < vertexCount; u++) {
+            Arrays.fill(sources, offsets[u], offsets[u + 1], u);
+        }
+        int[] order = RadixSort.sortedOrder(weights);
 
-        while (!pq.isEmpty() || mst.size() < graph.getVertices().size() - 1) {
-            Edge<T> curr = pq.poll();
-            if (!ds.find(curr.getU()).equals(ds.find(curr.getV()))) {
-                mst.add(curr);
-                Edge<T> counterpart = new Edge<>(curr.getV(), curr.getU(), curr.getWeight());
-                mst.add(counterpart);
-                ds.union(curr.getU(), curr.getV());
+        IntDisjointSet ds = new IntDisjointSet(vertexCount);
+        Set<Edge<T>> mst = new HashSet<>();
+        int accepted = 0;
+        for (int i = 0; i < order.length && accepted < vertexCount - 1; i++) {
+            int e = order[i];
+            if (ds.union(sources[e], targets[e])) {
+                accepted++;
+                Vertex<T> u = graph.getVertex(sources[e]);
+                Vertex<T> v = graph.getVertex(targets[e]);
+                mst.add(new Edge<>(u, v, weights[e]));
+                mst.add(new Edge<>(v, u, weights[e]));
             }
         }
-        if (mst.size() < graph.getVertices().size() - 1) {
+        if (accepted < vertexCount - 1) {
             return null;
         }
         return mst;
     }
+
+    /**
+     * Runs Kruskal's algorithm on a compact graph in parallel, in the
+     * Filter-Kruskal form: edges are partitioned around a sampled pivot
+     * weight, the light half is solved first and the heavy half is filtered
+     * down to edges that still join two components before it is solved, so
+     * most heavy edges of a dense graph are never sorted. The result is the
+     * same as {@link #kruskals(CompactGraph)}.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the compact graph we are applying Kruskals to
+     * @param pool  the pool to partition and filter edges on
+     * @return the MST of the graph or null if there is no valid MST
+     * @throws IllegalArgumentException if any input is null
+     */
+    public static <T> Set<Edge<T>> kruskals(CompactGraph<T> graph, ForkJoinPool pool) {
+        return FilterKruskal.mst(graph, pool);
+    }
+
+    /**
+     * Finds the Minimal Spanning Tree (MST) of a compact graph with
+     * Boruvka's algorithm, as an alternative to Kruskal's that scales across
+     * cores. Every round finds the cheapest edge leaving each component in
+     * parallel and contracts the components it joins, so at most log V
+     * rounds are needed. The same assumptions as
+     * {@link #kruskals(CompactGraph)} apply, and the returned set contains
+     * both directions of every MST edge.
+     *
+     * Weight ties are broken by the end ids of the edges rather than by edge
+     * order, so with equal weights the tree may differ from the one Kruskal's
+     * finds, though its total weight is the same.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the compact graph we are applying Boruvka's to
+     * @param pool  the pool to run the rounds on
+     * @return the MST of the graph or null if there is no valid MST
+     * @throws IllegalArgumentException if any input is null
+     */
+    public static <T> Set<Edge<T>> boruvkas(CompactGraph<T> graph, ForkJoinPool pool) {
+        return Boruvka.mst(graph, pool);
+    }
+
+    /**
+     * Runs Prim's algorithm on the graph and returns the Minimal Spanning
+     * Tree (MST) in the form of a set of Edges, or null if the graph is
+     * disconnected. The same assumptions as {@link #kruskals(Graph)} apply,
+     * and the returned set contains both directions of every MST edge.
+     *
+     * The tree grows from start over a compact copy of the adjacency list,
+     * keeping the lightest edge into the tree for every other vertex in an
+     * indexed heap with decrease-key, so no edge is ever queued.
+     *
+     * DO NOT modify the structure of the graph. The graph should be unmodified
+     * after this method terminates.
+     *
+     * @param <T>   the generic typing of the data
+     * @param start the vertex to grow the MST from
+     * @param graph the graph we are applying Prims to
+     * @return the MST of the graph or null if there is no valid MST
+     * @throws IllegalArgumentException if any input is null, or if start
+     *                                  doesn't exist in the graph
+     */
+    public static <T> Set<Edge<T>> prims(Vertex<T> start, Graph<T> graph) {
+        if (graph == null || start == null || !graph.getVertices().contains(start)) {
+            throw new IllegalArgumentException("An input is null or the graph does not contain the start");
+        }
+        return prims(start, new CompactGraph<>(graph));
+    }
+
+    /**
+     * Runs Prim's algorithm with an indexed heap on a compact graph. Use
+     * {@link Prim#dense(int, CompactGraph)} for the O(V^2) array scan
+     * variant.
+     *
+     * @param <T>   the generic typing of the data
+     * @param start the vertex to grow the MST from
+     * @param graph the compact graph we are applying Prims to
+     * @return the MST of the graph or null if there is no valid MST
+     * @throws IllegalArgumentException if any input is null, or if start
+     *                                  doesn't exist in the graph
+     */
+    public static <T> Set<Edge<T>> prims(Vertex<T> start, CompactGraph<T> graph) {
+        return Prim.heap(idOf(start, graph), graph);
+    }
+
+    /**
+     * Finds the Minimal Spanning Tree (MST) of a compact graph, picking the
+     * algorithm by the density E / (V * (V - 1)): Kruskal's below 1%, where
+     * sorting few edges is cheapest, the array scan Prim's from 25%, where
+     * its O(V^2) bound is close to E anyway, and the heap Prim's in between.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the compact graph to span
+     * @return the MST of the graph or null if there is no valid MST
+     * @throws IllegalArgumentException if any input is null
+     */
+    public static <T> Set<Edge<T>> minimumSpanningTree(CompactGraph<T> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("the graph is null");
+        }
+        long vertexCount = graph.getVertexCount();
+        if (vertexCount <= 1) {
+            return new HashSet<>();
+        }
+        double density = graph.getEdgeCount()
+            / ((double) vertexCount * (vertexCount - 1));
+        if (density < SPARSE_DENSITY) {
+            return kruskals(graph);
+        } else if (density < DENSE_DENSITY) {
+            return Prim.heap(0, graph);
+        }
+        return Prim.dense(0, graph);
+    }
+
+    /**
+     * Finds the strongly connected components of a directed compact graph
+     * with an iterative Tarjan's algorithm, in O(V + E) time instead of a
+     * dfs from every vertex. The result holds the component id of every
+     * vertex id, numbered in topological order, and the condensation DAG.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the compact graph to split
+     * @return the strongly connected components of the graph
+     * @throws IllegalArgumentException if any input is null
+     */
+    public static <T> StronglyConnectedComponents<T> stronglyConnectedComponents(CompactGraph<T> graph) {
+        return StronglyConnectedComponents.of(graph);
+    }
+
+    /**
+     * Finds the strongly connected components of a directed compact graph
+     * in parallel with the trimmed forward-backward algorithm, for graphs
+     * too large for a single core. The components are the same as those of
+     * {@link #stronglyConnectedComponents(CompactGraph)}.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the compact graph to split
+     * @param pool  the pool to split the graph on
+     * @return the strongly connected components of the graph
+     * @throws IllegalArgumentException if any input is null
+     */
+    public static <T> StronglyConnectedComponents<T> stronglyConnectedComponents(CompactGraph<T> graph,
+        ForkJoinPool pool) {
+        return StronglyConnectedComponents.of(graph, pool);
+    }
+
+    /**
+     * Finds the connected components of an undirected compact graph in
+     * parallel with Afforest style hooking and pointer jumping. The same
+     * assumptions as {@link #kruskals(Graph)} apply. Every component is
+     * labelled with the lowest vertex id in it.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the compact graph to split
+     * @param pool  the pool to run on
+     * @return the connected components of the graph
+     * @throws IllegalArgumentException if any input is null
+     */
+    public static <T> ConnectedComponents<T> connectedComponents(CompactGraph<T> graph, ForkJoinPool pool) {
+        return ConnectedComponents.of(graph, pool);
+    }
+
+    /**
+     * Checks if an undirected graph is connected, without sorting any edges
+     * the way a {@link #kruskals(Graph)} null check does. The same
+     * assumptions as {@link #kruskals(Graph)} apply. A graph with no
+     * vertices is connected.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the graph to check
+     * @return true if a path joins every pair of vertices
+     * @throws IllegalArgumentException if any input is null
+     */
+    public static <T> boolean isConnected(Graph<T> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("the graph is null");
+        }
+        return isConnected(new CompactGraph<>(graph));
+    }
+
+    /**
+     * Checks if an undirected compact graph is connected, using the
+     * components of {@link #connectedComponents(CompactGraph, ForkJoinPool)}
+     * on the common pool.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the compact graph to check
+     * @return true if a path joins every pair of vertices
+     * @throws IllegalArgumentException if any input is null
+     */
+    public static <T> boolean isConnected(CompactGraph<T> graph) {
+        return ConnectedComponents.of(graph).isConnected();
+    }
+
+    /**
+     * Finds the shortest distance between every pair of vertices of a
+     * compact graph (you may assume non-negative edge weights) into one flat
+     * int matrix instead of a map per source. Dense graphs are solved with a
+     * tiled parallel Floyd-Warshall and sparse ones with a parallel Dijkstra
+     * from every vertex, both on the common pool; see
+     * {@link AllPairsShortestPaths} to pick one or choose the pool.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the compact graph to search
+     * @return the distances between all pairs of vertices
+     * @throws IllegalArgumentException if any input is null or the graph
+     *                                  has more than 46340 vertices
+     */
+    public static <T> AllPairsShortestPaths<T> allPairsShortestPaths(CompactGraph<T> graph) {
+        return AllPairsShortestPaths.of(graph);
+    }
+
+    /**
+     * Checks the start of a search on a mapped graph.
+     *
+     * @param start the id of the start vertex
+     * @param graph the mapped graph to search through
+     * @throws IllegalArgumentException if the graph is null or start is not
+     *                                  a vertex id of the graph
+     */
+    private static void checkMappedStart(int start, MappedGraph graph) {
+        if (graph == null || start < 0 || start >= graph.getVertexCount()) {
+            throw new IllegalArgumentException("The graph is null or the start is out of range");
+        }
+    }
+
+    /**
+     * Looks up the id of the start vertex of a search on a compact graph.
+     *
+     * @param <T>   the generic typing of the data
+     * @param start the vertex to look up
+     * @param graph the compact graph to search through
+     * @return the id of start
+     * @throws IllegalArgumentException if any input is null, or if start
+     *                                  doesn't exist in the graph
+     */
+    private static <T> int idOf(Vertex<T> start, CompactGraph<T> graph) {
+        if (graph == null || start == null || graph.getId(start) < 0) {
+            throw new IllegalArgumentException("An input is null or the graph doesnt contain the start");
+        }
+        return graph.getId(start);
+    }
+
+    /**
+     * Converts the first count ids of an array to their vertices.
+     *
+     * @param <T>   the generic typing of the data
+     * @param ids   the vertex ids
+     * @param count the number of ids to convert
+     * @param graph the compact graph the ids belong to
+     * @return list of the vertices in the same order
+     */
+    private static <T> List<Vertex<T>> toVertices(int[] ids, int count, CompactGraph<T> graph) {
+        List<Vertex<T>> vertices = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            vertices.add(graph.getVertex(ids[i]));
+        }
+        return vertices;
+    }
 }
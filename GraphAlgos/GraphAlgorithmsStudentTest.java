@@ -1,15 +1,34 @@
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class GraphAlgorithmsStudentTest {
 
@@ -81,6 +100,69 @@ public class GraphAlgorithmsStudentTest {
         return new Graph<>(vertices, edges);
     }
 
+    /**
+     * Creates a random undirected compact graph. Vertex i belongs to
+     * component i % components; each component is joined by a path and then
+     * gets random extra edges. Every edge is stored in both directions and
+     * all weights are distinct, so the MST is unique.
+     *
+     * @param n          the number of vertices
+     * @param extra      the number of extra undirected edges
+     * @param components the number of connected components
+     * @param seed       the seed of the random edges and weights
+     * @return the completed graph
+     */
+    private CompactGraph<Integer> createRandomUndirectedGraph(int n,
+        int extra, int components, long seed) {
+        Random random = new Random(seed);
+        int m = n - components + extra;
+        int[] sources = new int[m];
+        int[] ends = new int[m];
+        int count = 0;
+        for (int v = components; v < n; v++) {
+            sources[count] = v - components;
+            ends[count++] = v;
+        }
+        while (count < m) {
+            int u = random.nextInt(n);
+            int v = u + components * random.nextInt((n - 1 - u) / components
+                + 1);
+            if (u != v) {
+                sources[count] = u;
+                ends[count++] = v;
+            }
+        }
+        int[] weights = new int[m];
+        for (int i = 0; i < m; i++) {
+            int j = random.nextInt(i + 1);
+            weights[i] = weights[j];
+            weights[j] = i + 1;
+        }
+
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < m; i++) {
+            offsets[sources[i] + 1]++;
+            offsets[ends[i] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] cursor = Arrays.copyOf(offsets, n);
+        int[] targets = new int[2 * m];
+        int[] edgeWeights = new int[2 * m];
+        for (int i = 0; i < m; i++) {
+            targets[cursor[sources[i]]] = ends[i];
+            edgeWeights[cursor[sources[i]]++] = weights[i];
+            targets[cursor[ends[i]]] = sources[i];
+            edgeWeights[cursor[ends[i]]++] = weights[i];
+        }
+        List<Vertex<Integer>> vertices = new ArrayList<>(n);
+        for (int v = 0; v < n; v++) {
+            vertices.add(new Vertex<>(v));
+        }
+        return new CompactGraph<>(vertices, offsets, targets, edgeWeights);
+    }
+
     @Test(timeout = TIMEOUT)
     public void testBFS() {
         List<Vertex<Integer>> bfsActual = GraphAlgorithms.bfs(
@@ -147,4 +229,1019 @@ public class GraphAlgorithmsStudentTest {
 
         assertEquals(mstExpected, mstActual);
     }
-}
\ No newline at end of file
+
+    @Test(timeout = TIMEOUT)
+    public void testKruskalsDisconnected() {
+        Set<Vertex<Character>> vertices = new HashSet<>(
+            undirectedGraph.getVertices());
+        vertices.add(new Vertex<>('G'));
+        Graph<Character> disconnected = new Graph<>(vertices,
+            undirectedGraph.getEdges());
+
+        assertNull(GraphAlgorithms.kruskals(disconnected));
+        assertNull(GraphAlgorithms.kruskals(new CompactGraph<>(disconnected)));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testFilterKruskalLarge() {
+        CompactGraph<Integer> connected = createRandomUndirectedGraph(2000,
+            2500, 1, 11);
+        CompactGraph<Integer> disconnected = createRandomUndirectedGraph(2000,
+            2500, 3, 11);
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        Set<Edge<Integer>> mst = GraphAlgorithms.kruskals(connected);
+        assertEquals(2 * 1999, mst.size());
+        assertEquals(mst, GraphAlgorithms.kruskals(connected, pool));
+        assertNull(GraphAlgorithms.kruskals(disconnected, pool));
+        pool.shutdown();
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testBoruvkaLarge() {
+        CompactGraph<Integer> connected = createRandomUndirectedGraph(4200,
+            500, 1, 12);
+        CompactGraph<Integer> disconnected = createRandomUndirectedGraph(4200,
+            500, 2, 12);
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        assertEquals(GraphAlgorithms.kruskals(connected),
+            Boruvka.mst(connected, pool));
+        assertNull(Boruvka.mst(disconnected, pool));
+        pool.shutdown();
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testRadixSort() {
+        int[] keys = {5, -3, 5, Integer.MIN_VALUE, 0, -3, Integer.MAX_VALUE,
+            5, 256, -256};
+        int[] copy = keys.clone();
+
+        assertArrayEquals(new int[] {3, 9, 1, 5, 4, 0, 2, 7, 8, 6},
+            RadixSort.sortedOrder(keys));
+        assertArrayEquals(copy, keys);
+        assertArrayEquals(new int[0], RadixSort.sortedOrder(new int[0]));
+
+        Random random = new Random(10);
+        int[] many = new int[5000];
+        for (int i = 0; i < many.length; i++) {
+            many[i] = random.nextInt(200) - 100;
+        }
+        int[] order = RadixSort.sortedOrder(many);
+        for (int i = 1; i < order.length; i++) {
+            assertTrue(many[order[i - 1]] < many[order[i]]
+                || many[order[i - 1]] == many[order[i]]
+                && order[i - 1] < order[i]);
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testIntDisjointSet() {
+        IntDisjointSet set = new IntDisjointSet(6);
+
+        assertTrue(set.union(0, 1));
+        assertTrue(set.union(2, 3));
+        assertTrue(set.union(1, 3));
+        assertFalse(set.union(0, 2));
+        assertTrue(set.sameSet(0, 3));
+        assertFalse(set.sameSet(0, 4));
+        assertEquals(3, set.getComponentCount());
+        assertEquals(4, set.getComponentSize(2));
+        assertEquals(6, set.add());
+        assertEquals(4, set.getComponentCount());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testCompactGraphTraversals() {
+        CompactGraph<Integer> compact = new CompactGraph<>(directedGraph);
+
+        assertEquals(GraphAlgorithms.bfs(new Vertex<>(1), directedGraph),
+            GraphAlgorithms.bfs(new Vertex<>(1), compact));
+        assertEquals(GraphAlgorithms.dfs(new Vertex<>(5), directedGraph),
+            GraphAlgorithms.dfs(new Vertex<>(5), compact));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testCompactGraphDijkstrasAndKruskals() {
+        CompactGraph<Character> compact = new CompactGraph<>(undirectedGraph);
+
+        assertEquals(GraphAlgorithms.dijkstras(new Vertex<>('D'),
+            undirectedGraph), GraphAlgorithms.dijkstras(new Vertex<>('D'),
+            compact));
+        assertEquals(GraphAlgorithms.kruskals(undirectedGraph),
+            GraphAlgorithms.kruskals(compact));
+        assertEquals(GraphAlgorithms.kruskals(compact),
+            GraphAlgorithms.kruskals(compact, ForkJoinPool.commonPool()));
+        assertEquals(GraphAlgorithms.kruskals(compact),
+            GraphAlgorithms.boruvkas(compact, ForkJoinPool.commonPool()));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testDirectionOptimizingBfsLevels() {
+        CompactGraph<Integer> compact = new CompactGraph<>(directedGraph);
+        int[] levels = DirectionOptimizingBfs.levels(new Vertex<>(1), compact);
+
+        int[] expected = {0, 1, 1, 1, 2, 2, 3};
+        for (int i = 1; i <= 7; i++) {
+            assertEquals(expected[i - 1],
+                levels[compact.getId(new Vertex<>(i))]);
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testDirectionOptimizingBfsSwitching() {
+        Random random = new Random(2);
+        int n = 5000;
+        List<Vertex<Integer>> vertices = new ArrayList<>();
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[8 * n];
+        int e = 0;
+        for (int u = 0; u < n; u++) {
+            vertices.add(new Vertex<>(u));
+            if (u < n / 2) {
+                for (int i = 0; i < 8; i++) {
+                    targets[e++] = random.nextInt(n / 2);
+                }
+            }
+            if (u >= n / 2 - 1 && u + 1 < n) {
+                targets[e++] = u + 1;
+            }
+            offsets[u + 1] = e;
+        }
+        CompactGraph<Integer> compact = new CompactGraph<>(vertices, offsets,
+            Arrays.copyOf(targets, e), new int[e]);
+        int[] levels = DirectionOptimizingBfs.levels(0, compact);
+
+        GraphSearchContext context = new GraphSearchContext(compact);
+        context.bfs(0);
+        for (int v = 0; v < n; v++) {
+            assertEquals(context.isReached(v) ? context.getDistance(v)
+                : DirectionOptimizingBfs.UNREACHED, levels[v]);
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testParallelBfsDeterministic() {
+        CompactGraph<Integer> compact = new CompactGraph<>(directedGraph);
+
+        assertEquals(GraphAlgorithms.bfs(new Vertex<>(1), directedGraph),
+            ParallelBfs.bfs(new Vertex<>(1), compact, true));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testParallelBfsLarge() {
+        CompactGraph<Integer> compact = createRandomUndirectedGraph(5000,
+            15000, 2, 3);
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        List<Vertex<Integer>> expected = GraphAlgorithms.bfs(new Vertex<>(0),
+            compact);
+        assertEquals(2500, expected.size());
+        assertEquals(expected, ParallelBfs.bfs(new Vertex<>(0), compact, pool,
+            true));
+
+        int[] unordered = ParallelBfs.visitOrder(0, compact, pool, false);
+        int[] expectedIds = expected.stream()
+            .mapToInt(compact::getId).sorted().toArray();
+        Arrays.sort(unordered);
+        assertArrayEquals(expectedIds, unordered);
+
+        GraphSearchContext context = new GraphSearchContext(compact);
+        context.bfs(0);
+        int[] levels = ParallelBfs.levels(0, compact, pool);
+        for (int v = 0; v < compact.getVertexCount(); v++) {
+            assertEquals(context.isReached(v) ? context.getDistance(v)
+                : ParallelBfs.UNREACHED, levels[v]);
+        }
+        pool.shutdown();
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testDepthFirstIteratorPostOrder() {
+        CompactGraph<Integer> compact = new CompactGraph<>(directedGraph);
+        DepthFirstIterator search = new DepthFirstIterator(compact,
+            compact.getId(new Vertex<>(5)),
+            EnumSet.of(DepthFirstIterator.Event.POST_ORDER));
+
+        List<Vertex<Integer>> postActual = new LinkedList<>();
+        while (search.hasNext()) {
+            postActual.add(compact.getVertex(search.nextInt()));
+        }
+
+        List<Vertex<Integer>> postExpected = new LinkedList<>();
+        postExpected.add(new Vertex<>(6));
+        postExpected.add(new Vertex<>(4));
+        postExpected.add(new Vertex<>(7));
+        postExpected.add(new Vertex<>(5));
+
+        assertEquals(postExpected, postActual);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testDepthFirstIteratorLongChain() {
+        int n = 100000;
+        List<Vertex<Integer>> vertices = new ArrayList<>(n);
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[n - 1];
+        for (int i = 0; i < n; i++) {
+            vertices.add(new Vertex<>(i));
+            if (i + 1 < n) {
+                targets[i] = i + 1;
+            }
+            offsets[i + 1] = Math.min(i + 1, n - 1);
+        }
+        CompactGraph<Integer> compact = new CompactGraph<>(vertices, offsets,
+            targets, new int[n - 1]);
+
+        DepthFirstIterator pre = new DepthFirstIterator(compact, 0,
+            EnumSet.of(DepthFirstIterator.Event.PRE_ORDER));
+        for (int i = 0; i < n; i++) {
+            assertTrue(pre.hasNext());
+            assertEquals(i, pre.nextInt());
+        }
+        assertFalse(pre.hasNext());
+
+        DepthFirstIterator post = new DepthFirstIterator(compact, 0,
+            EnumSet.of(DepthFirstIterator.Event.POST_ORDER));
+        for (int i = n - 1; i >= 0; i--) {
+            assertTrue(post.hasNext());
+            assertEquals(i, post.nextInt());
+        }
+        assertFalse(post.hasNext());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testDijkstrasLaterShorterPath() {
+        Set<Vertex<Character>> vertices = new HashSet<>();
+        for (char c = 'A'; c <= 'D'; c++) {
+            vertices.add(new Vertex<>(c));
+        }
+        Set<Edge<Character>> edges = new LinkedHashSet<>();
+        edges.add(new Edge<>(new Vertex<>('A'), new Vertex<>('B'), 10));
+        edges.add(new Edge<>(new Vertex<>('A'), new Vertex<>('C'), 1));
+        edges.add(new Edge<>(new Vertex<>('C'), new Vertex<>('B'), 1));
+        CompactGraph<Character> compact = new CompactGraph<>(
+            new Graph<>(vertices, edges));
+
+        ShortestPaths<Character> paths = Dijkstra.run(new Vertex<>('A'),
+            compact);
+
+        Map<Vertex<Character>, Integer> dijkExpected = new HashMap<>();
+        dijkExpected.put(new Vertex<>('A'), 0);
+        dijkExpected.put(new Vertex<>('B'), 2);
+        dijkExpected.put(new Vertex<>('C'), 1);
+        dijkExpected.put(new Vertex<>('D'), Integer.MAX_VALUE);
+
+        assertEquals(dijkExpected, paths.asMap());
+        List<Vertex<Character>> pathExpected = new LinkedList<>();
+        pathExpected.add(new Vertex<>('A'));
+        pathExpected.add(new Vertex<>('C'));
+        pathExpected.add(new Vertex<>('B'));
+        assertEquals(pathExpected, paths.getPath(new Vertex<>('B')));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testShortestPath() {
+        CompactGraph<Character> compact = new CompactGraph<>(undirectedGraph);
+
+        List<Vertex<Character>> pathExpected = new LinkedList<>();
+        pathExpected.add(new Vertex<>('A'));
+        pathExpected.add(new Vertex<>('D'));
+        pathExpected.add(new Vertex<>('E'));
+        pathExpected.add(new Vertex<>('F'));
+
+        Path<Character> bidirectional = GraphAlgorithms.shortestPath(
+            new Vertex<>('A'), new Vertex<>('F'), compact);
+        assertEquals(11, bidirectional.getDistance());
+        assertEquals(pathExpected, bidirectional.getVertices());
+
+        Path<Character> aStar = GraphAlgorithms.shortestPath(
+            new Vertex<>('A'), new Vertex<>('F'), compact, (v, t) -> 0);
+        assertEquals(bidirectional, aStar);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testGraphSearchContext() {
+        CompactGraph<Integer> directed = new CompactGraph<>(directedGraph);
+        GraphSearchContext context = new GraphSearchContext(directed);
+        for (Vertex<Integer> start : directedGraph.getVertices()) {
+            int source = directed.getId(start);
+            List<Vertex<Integer>> bfsActual = new ArrayList<>();
+            for (int i = 0; i < context.bfs(source); i++) {
+                bfsActual.add(directed.getVertex(context.getVisited(i)));
+            }
+            assertEquals(GraphAlgorithms.bfs(start, directed), bfsActual);
+
+            List<Vertex<Integer>> dfsActual = new ArrayList<>();
+            for (int i = 0; i < context.dfs(source); i++) {
+                dfsActual.add(directed.getVertex(context.getVisited(i)));
+            }
+            assertEquals(GraphAlgorithms.dfs(start, directedGraph), dfsActual);
+            for (int v = 0; v < directed.getVertexCount(); v++) {
+                assertEquals(dfsActual.contains(directed.getVertex(v)),
+                    context.isReached(v));
+            }
+        }
+
+        CompactGraph<Character> compact = new CompactGraph<>(undirectedGraph);
+        GraphSearchContext weighted = new GraphSearchContext(compact);
+        for (Vertex<Character> start : undirectedGraph.getVertices()) {
+            Map<Vertex<Character>, Integer> expected =
+                GraphAlgorithms.dijkstras(start, undirectedGraph);
+            assertEquals(6, weighted.dijkstras(compact.getId(start)));
+            for (int v = 0; v < compact.getVertexCount(); v++) {
+                assertEquals((long) expected.get(compact.getVertex(v)),
+                    weighted.getDistance(v));
+            }
+        }
+
+        int a = compact.getId(new Vertex<>('A'));
+        int e = compact.getId(new Vertex<>('E'));
+        int settled = weighted.dijkstras(a, e);
+        assertTrue(settled < 6);
+        assertEquals(e, weighted.getVisited(settled - 1));
+        assertEquals(5, weighted.getDistance(e));
+        assertEquals(ShortestPaths.UNREACHABLE,
+            weighted.getDistance(compact.getId(new Vertex<>('F'))));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testGraphSearchContextBeforeSearch() {
+        CompactGraph<Integer> directed = new CompactGraph<>(directedGraph);
+        GraphSearchContext context = new GraphSearchContext(directed);
+
+        assertEquals(0, context.getVisitedCount());
+        for (int v = 0; v < directed.getVertexCount(); v++) {
+            assertFalse(context.isReached(v));
+            assertEquals(ShortestPaths.UNREACHABLE, context.getDistance(v));
+            assertEquals(ShortestPaths.NO_PARENT, context.getParent(v));
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testGraphSearchContextGenerationWrap() {
+        CompactGraph<Integer> directed = new CompactGraph<>(directedGraph);
+        GraphSearchContext context = new GraphSearchContext(directed);
+        int source = directed.getId(new Vertex<>(1));
+        int sink = directed.getId(new Vertex<>(6));
+        assertEquals(7, context.bfs(source));
+
+        context.setGeneration(-1);
+        assertEquals(1, context.bfs(sink));
+        for (int v = 0; v < directed.getVertexCount(); v++) {
+            assertEquals(v == sink, context.isReached(v));
+            assertEquals(v == sink ? 0 : ShortestPaths.UNREACHABLE,
+                context.getDistance(v));
+        }
+        assertEquals(7, context.dfs(source));
+        assertEquals(1, context.dijkstras(sink));
+        assertFalse(context.isReached(source));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testDeltaStepping() {
+        CompactGraph<Character> compact = new CompactGraph<>(undirectedGraph);
+
+        assertEquals(GraphAlgorithms.dijkstras(new Vertex<>('D'),
+            undirectedGraph), GraphAlgorithms.deltaStepping(new Vertex<>('D'),
+            compact));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testDeltaSteppingLarge() {
+        CompactGraph<Integer> compact = createRandomUndirectedGraph(5000,
+            15000, 2, 7);
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        assertEquals(GraphAlgorithms.dijkstras(new Vertex<>(0), compact),
+            GraphAlgorithms.deltaStepping(new Vertex<>(0), compact));
+        long[] expected = Dijkstra.run(1, compact,
+            IndexedDaryHeap.DEFAULT_ARITY).getDistances();
+        assertArrayEquals(expected, DeltaStepping.distances(1, compact,
+            DeltaStepping.defaultDelta(compact), pool));
+        assertArrayEquals(expected, DeltaStepping.distances(1, compact, 1,
+            pool));
+        pool.shutdown();
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testDeltaSteppingLargeWeights() {
+        List<Vertex<Integer>> vertices = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            vertices.add(new Vertex<>(i));
+        }
+        int[] offsets = {0, 2, 3, 4, 4, 4, 4, 4, 4, 4, 4};
+        int[] targets = {1, 2, 3, 3};
+        int[] weights = {2_000_000_000, 3, 2_000_000_000, 1_999_999_999};
+        CompactGraph<Integer> compact = new CompactGraph<>(vertices, offsets,
+            targets, weights);
+
+        assertEquals(2_000_000_000, DeltaStepping.defaultDelta(compact));
+        long[] expected = {0, 2_000_000_000L, 3, 2_000_000_002L,
+            ShortestPaths.UNREACHABLE, ShortestPaths.UNREACHABLE,
+            ShortestPaths.UNREACHABLE, ShortestPaths.UNREACHABLE,
+            ShortestPaths.UNREACHABLE, ShortestPaths.UNREACHABLE};
+        assertArrayEquals(expected, DeltaStepping.distances(0, compact, 1,
+            ForkJoinPool.commonPool()));
+        assertArrayEquals(expected, DeltaStepping.distances(0, compact,
+            DeltaStepping.defaultDelta(compact), ForkJoinPool.commonPool()));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testContractionHierarchy() throws IOException {
+        CompactGraph<Character> compact = new CompactGraph<>(undirectedGraph);
+        ContractionHierarchy<Character> hierarchy =
+            ContractionHierarchy.build(compact);
+
+        ByteArrayOutputStream saved = new ByteArrayOutputStream();
+        hierarchy.save(saved);
+        ContractionHierarchy<Character> loaded = ContractionHierarchy.load(
+            new ByteArrayInputStream(saved.toByteArray()), compact);
+
+        for (Vertex<Character> source : undirectedGraph.getVertices()) {
+            Map<Vertex<Character>, Integer> dijkExpected =
+                GraphAlgorithms.dijkstras(source, undirectedGraph);
+            for (Vertex<Character> target : undirectedGraph.getVertices()) {
+                long expected = dijkExpected.get(target);
+                assertEquals(expected, hierarchy.distance(source, target));
+                assertEquals(expected,
+                    loaded.shortestPath(source, target).getDistance());
+            }
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testContractionHierarchyRandom() throws IOException {
+        Random random = new Random(8);
+        int n = 100;
+        List<List<int[]>> adjacency = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            adjacency.add(new ArrayList<>());
+        }
+        for (int i = 0; i < 3 * n; i++) {
+            int u = random.nextInt(n);
+            int v = random.nextInt(n);
+            int weight = 500_000_000 + random.nextInt(100_000_001);
+            adjacency.get(u).add(new int[] {v, weight});
+            adjacency.get(v).add(new int[] {u, weight});
+        }
+        List<Vertex<Integer>> vertices = new ArrayList<>();
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[12 * n];
+        int[] weights = new int[12 * n];
+        int e = 0;
+        for (int u = 0; u < n; u++) {
+            vertices.add(new Vertex<>(u));
+            for (int[] edge : adjacency.get(u)) {
+                targets[e] = edge[0];
+                weights[e++] = edge[1];
+            }
+            offsets[u + 1] = e;
+        }
+        CompactGraph<Integer> compact = new CompactGraph<>(vertices, offsets,
+            targets, weights);
+        ContractionHierarchy<Integer> hierarchy =
+            ContractionHierarchy.build(compact);
+
+        ByteArrayOutputStream saved = new ByteArrayOutputStream();
+        hierarchy.save(saved);
+        ContractionHierarchy<Integer> loaded = ContractionHierarchy.load(
+            new ByteArrayInputStream(saved.toByteArray()), compact);
+
+        for (int s = 0; s < n; s += 9) {
+            long[] expected = Dijkstra.run(s, compact,
+                IndexedDaryHeap.DEFAULT_ARITY).getDistances();
+            for (int t = 0; t < n; t++) {
+                assertEquals(expected[t], hierarchy.distance(
+                    compact.getVertex(s), compact.getVertex(t)));
+                assertEquals(expected[t], loaded.distance(
+                    compact.getVertex(s), compact.getVertex(t)));
+            }
+        }
+
+        byte[] truncated = Arrays.copyOf(saved.toByteArray(),
+            saved.size() - 1);
+        boolean rejected = false;
+        try {
+            ContractionHierarchy.load(new ByteArrayInputStream(truncated),
+                compact);
+        } catch (IOException expectedFailure) {
+            rejected = true;
+        }
+        assertTrue(rejected);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testPrims() {
+        CompactGraph<Character> compact = new CompactGraph<>(undirectedGraph);
+        Set<Edge<Character>> mst = GraphAlgorithms.kruskals(undirectedGraph);
+
+        assertEquals(mst, GraphAlgorithms.prims(new Vertex<>('A'),
+            undirectedGraph));
+        assertEquals(mst, Prim.dense(compact.getId(new Vertex<>('F')),
+            compact));
+        assertEquals(mst, GraphAlgorithms.minimumSpanningTree(compact));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testMinimumSpanningTreeSparse() {
+        CompactGraph<Integer> sparse = createRandomUndirectedGraph(2000, 1000,
+            1, 13);
+        Set<Edge<Integer>> mst = Prim.dense(0, sparse);
+
+        assertEquals(2 * 1999, mst.size());
+        assertEquals(mst, GraphAlgorithms.minimumSpanningTree(sparse));
+        assertNull(GraphAlgorithms.minimumSpanningTree(
+            createRandomUndirectedGraph(2000, 1000, 2, 13)));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testMinimumSpanningTreeMediumDensity() {
+        CompactGraph<Integer> medium = createRandomUndirectedGraph(200, 2000,
+            1, 13);
+        Set<Edge<Integer>> mst = GraphAlgorithms.kruskals(medium);
+
+        assertEquals(2 * 199, mst.size());
+        assertEquals(mst, GraphAlgorithms.minimumSpanningTree(medium));
+        assertNull(GraphAlgorithms.minimumSpanningTree(
+            createRandomUndirectedGraph(200, 2000, 2, 13)));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testConcurrentDisjointSet() {
+        ConcurrentDisjointSet set = new ConcurrentDisjointSet(1000);
+        long joined = IntStream.range(0, 2000).parallel()
+            .filter(i -> set.union(i % 1000, (i % 1000 + 2) % 1000))
+            .count();
+
+        assertEquals(998, joined);
+        assertTrue(set.sameSet(0, 998));
+        assertTrue(set.sameSet(1, 999));
+        assertFalse(set.sameSet(0, 1));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testDisjointSetComponents() {
+        DisjointSet<Character> set = new DisjointSet<>();
+        set.union('A', 'B');
+        set.union('B', 'C');
+        set.find('D');
+
+        assertEquals(2, set.getComponentCount());
+        assertEquals(3, set.getComponentSize('A'));
+        assertEquals(set.find('A'), set.find('C'));
+        assertEquals(1, set.getComponentSize('D'));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testStreamingConnectivity() {
+        StreamingConnectivity<Character> connectivity =
+            new StreamingConnectivity<>(2);
+        Vertex<Character> a = new Vertex<>('A');
+        Vertex<Character> b = new Vertex<>('B');
+        Vertex<Character> c = new Vertex<>('C');
+        Vertex<Character> d = new Vertex<>('D');
+
+        assertEquals(2, connectivity.addAll(Stream.of(new Edge<>(a, b, 1),
+            new Edge<>(c, d, 1))));
+        assertEquals(2, connectivity.componentCount());
+        assertFalse(connectivity.connected(a, c));
+        Map<Vertex<Character>, Set<Vertex<Character>>> before =
+            connectivity.snapshot();
+
+        assertTrue(connectivity.add(new Edge<>(d, a, 1)));
+        assertFalse(connectivity.add(new Edge<>(b, c, 1)));
+        assertTrue(connectivity.connected(a, c));
+        assertEquals(1, connectivity.componentCount());
+        assertEquals(2, before.size());
+        assertEquals(connectivity.componentOf(a), connectivity.componentOf(d));
+        assertEquals(new Vertex<>('E'),
+            connectivity.componentOf(new Vertex<>('E')));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testDynamicShortestPaths() {
+        MutableGraph<Integer> graph = new MutableGraph<>(directedGraph);
+        DynamicShortestPaths<Integer> paths =
+            new DynamicShortestPaths<>(graph, new Vertex<>(1));
+
+        graph.updateWeight(new Vertex<>(1), new Vertex<>(3), 2);
+        graph.updateWeight(new Vertex<>(5), new Vertex<>(4), 1);
+        assertEquals(0, paths.getDistance(new Vertex<>(4)));
+        assertEquals(2, paths.getDistance(new Vertex<>(7)));
+
+        long version = graph.getVersion();
+        assertEquals(0, graph.removeEdge(new Vertex<>(1), new Vertex<>(4)));
+        assertTrue(graph.getVersion() > version);
+        assertEquals(3, paths.getDistance(new Vertex<>(4)));
+        assertEquals(2, paths.getDistance(new Vertex<>(6)));
+
+        graph.addEdge(new Edge<>(new Vertex<>(2), new Vertex<>(6), 0));
+        assertEquals(0, paths.getDistance(new Vertex<>(6)));
+        assertEquals(new Path<>(0, List.of(new Vertex<>(1), new Vertex<>(2),
+            new Vertex<>(6))), paths.getPath(new Vertex<>(6)));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testMappedGraph() throws IOException {
+        CompactGraph<Character> compact = new CompactGraph<>(undirectedGraph);
+        File file = File.createTempFile("graph", ".csr");
+        file.deleteOnExit();
+        MappedGraph.write(compact, file);
+        MappedGraph mapped = MappedGraph.open(file);
+
+        assertEquals(compact.getEdgeCount(), mapped.getEdgeCount());
+        int d = mapped.getId("D");
+        assertEquals(compact.getId(new Vertex<>('D')), d);
+        assertEquals("D", mapped.getLabel(d));
+        assertEquals(-1, mapped.getId("Z"));
+
+        Map<Vertex<Character>, Integer> expected =
+            GraphAlgorithms.dijkstras(new Vertex<>('D'), compact);
+        long[] distances = GraphAlgorithms.dijkstras(d, mapped);
+        for (int i = 0; i < distances.length; i++) {
+            assertEquals((long) expected.get(compact.getVertex(i)),
+                distances[i]);
+        }
+        List<Vertex<Character>> bfs =
+            GraphAlgorithms.bfs(new Vertex<>('D'), compact);
+        int[] order = GraphAlgorithms.bfs(d, mapped);
+        for (int i = 0; i < order.length; i++) {
+            assertEquals(bfs.get(i).getData().toString(),
+                mapped.getLabel(order[i]));
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testEdgeListLoader() throws IOException {
+        File file = File.createTempFile("edges", ".txt");
+        file.deleteOnExit();
+        Files.write(file.toPath(), "# u v w\n0 2 5\n1 0 3\n\n0 1\t7\r\n2 0\n"
+            .getBytes(StandardCharsets.UTF_8));
+        CompactGraph<Integer> graph = EdgeListLoader.load(file);
+
+        assertEquals(3, graph.getVertexCount());
+        assertArrayEquals(new int[] {0, 2, 3, 4}, graph.getOffsets());
+        assertArrayEquals(new int[] {2, 1, 0, 0}, graph.getTargets());
+        assertArrayEquals(new int[] {5, 7, 3, 1}, graph.getWeights());
+        assertEquals(new Vertex<>(2), graph.getVertex(2));
+
+        for (String line : List.of("0 2147483647 1\n", "0 1 -5\n")) {
+            Files.write(file.toPath(), line.getBytes(StandardCharsets.UTF_8));
+            boolean rejected = false;
+            try {
+                EdgeListLoader.load(file);
+            } catch (IOException expected) {
+                rejected = true;
+            }
+            assertTrue(rejected);
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testVertexIndex() {
+        VertexIndex<String> index = new VertexIndex<>();
+        Vertex<String> a = new Vertex<>("a");
+
+        assertEquals(0, index.add(a));
+        assertEquals(1, index.add(new Vertex<>("b")));
+        assertEquals(0, index.add(new Vertex<>("a")));
+        assertTrue(a == index.intern(new Vertex<>("a")));
+        assertEquals(-1, index.getId(new Vertex<>("c")));
+        assertEquals(List.of(a, new Vertex<>("b")), index.asList());
+
+        CompactGraph<Integer> compact = new CompactGraph<>(directedGraph);
+        assertTrue(compact.getIndex() == compact.transpose().getIndex());
+
+        boolean rejected = false;
+        try {
+            new CompactGraph<>(List.of(a, new Vertex<>("a")), new int[3],
+                new int[0], new int[0]);
+        } catch (IllegalArgumentException expected) {
+            rejected = true;
+        }
+        assertTrue(rejected);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testVertexReordering() {
+        CompactGraph<Character> compact = new CompactGraph<>(undirectedGraph);
+        Map<Vertex<Character>, Integer> expected =
+            GraphAlgorithms.dijkstras(new Vertex<>('A'), compact);
+        for (VertexReordering.Strategy strategy
+            : VertexReordering.Strategy.values()) {
+            VertexReordering<Character> reordering =
+                VertexReordering.of(compact, strategy);
+            CompactGraph<Character> graph = reordering.getGraph();
+
+            assertEquals(compact.getEdgeCount(), graph.getEdgeCount());
+            for (int i = 0; i < compact.getVertexCount(); i++) {
+                int id = reordering.getNewId(i);
+                assertEquals(i, reordering.getOriginalId(id));
+                assertEquals(compact.getVertex(i), graph.getVertex(id));
+                assertEquals(compact.getDegree(i), graph.getDegree(id));
+            }
+            assertEquals(expected,
+                GraphAlgorithms.dijkstras(new Vertex<>('A'), graph));
+        }
+
+        VertexReordering<Character> byDegree = VertexReordering.of(compact,
+            VertexReordering.Strategy.DEGREE);
+        int[] degrees = new int[compact.getVertexCount()];
+        for (int i = 0; i < degrees.length; i++) {
+            degrees[i] = byDegree.getGraph().getDegree(i);
+            if (i > 0) {
+                assertTrue(degrees[i - 1] >= degrees[i]);
+            }
+        }
+        int[] original = byDegree.toOriginalOrder(degrees);
+        for (int i = 0; i < original.length; i++) {
+            assertEquals(compact.getDegree(i), original[i]);
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testVertexReorderingBandwidth() {
+        int n = 500;
+        List<Integer> scrambled = new ArrayList<>(IntStream.range(0, n)
+            .boxed().collect(Collectors.toList()));
+        Collections.shuffle(scrambled, new Random(21));
+        List<Vertex<Integer>> vertices = new ArrayList<>();
+        int[] position = new int[n];
+        for (int id = 0; id < n; id++) {
+            vertices.add(new Vertex<>(scrambled.get(id)));
+            position[scrambled.get(id)] = id;
+        }
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[2 * n - 2];
+        int e = 0;
+        for (int id = 0; id < n; id++) {
+            int step = scrambled.get(id);
+            if (step > 0) {
+                targets[e++] = position[step - 1];
+            }
+            if (step < n - 1) {
+                targets[e++] = position[step + 1];
+            }
+            offsets[id + 1] = e;
+        }
+        CompactGraph<Integer> path = new CompactGraph<>(vertices, offsets,
+            targets, new int[e]);
+
+        assertTrue(bandwidth(path) > 1);
+        VertexReordering<Integer> rcm = VertexReordering.of(path,
+            VertexReordering.Strategy.REVERSE_CUTHILL_MCKEE);
+        assertEquals(1, bandwidth(rcm.getGraph()));
+    }
+
+    /**
+     * Finds the largest difference between the ids of the ends of an edge.
+     *
+     * @param graph the graph to measure
+     * @return the bandwidth of the graph
+     */
+    private int bandwidth(CompactGraph<?> graph) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int bandwidth = 0;
+        for (int u = 0; u < graph.getVertexCount(); u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                bandwidth = Math.max(bandwidth, Math.abs(u - targets[e]));
+            }
+        }
+        return bandwidth;
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testStronglyConnectedComponents() {
+        Set<Edge<Integer>> edges = new LinkedHashSet<>(directedGraph.getEdges());
+        edges.add(new Edge<>(new Vertex<>(6), new Vertex<>(3), 0));
+        CompactGraph<Integer> compact = new CompactGraph<>(
+            new Graph<>(directedGraph.getVertices(), edges));
+
+        StronglyConnectedComponents<Integer> scc =
+            GraphAlgorithms.stronglyConnectedComponents(compact);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        StronglyConnectedComponents<Integer> parallel =
+            GraphAlgorithms.stronglyConnectedComponents(compact, pool);
+        pool.shutdown();
+        assertEquals(3, scc.getComponentCount());
+        assertEquals(3, parallel.getComponentCount());
+        int cycle = scc.getComponent(compact.getId(new Vertex<>(3)));
+        assertEquals(5, scc.getComponentSize(cycle));
+        for (int i = 3; i <= 7; i++) {
+            int id = compact.getId(new Vertex<>(i));
+            assertEquals(cycle, scc.getComponent(id));
+            assertEquals(parallel.getComponent(compact.getId(new Vertex<>(3))),
+                parallel.getComponent(id));
+        }
+        assertEquals(0, scc.getComponent(compact.getId(new Vertex<>(1))));
+        assertEquals(List.of(new Vertex<>(2)), scc.getMembers(
+            scc.getComponent(compact.getId(new Vertex<>(2)))));
+
+        CompactGraph<Integer> dag = scc.getCondensation();
+        assertEquals(2, dag.getEdgeCount());
+        for (int c = 0; c < dag.getVertexCount(); c++) {
+            for (int e = dag.getOffsets()[c]; e < dag.getOffsets()[c + 1]; e++) {
+                assertTrue(c < dag.getTargets()[e]);
+            }
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testConnectedComponents() {
+        assertTrue(GraphAlgorithms.isConnected(undirectedGraph));
+
+        Set<Edge<Character>> edges = new LinkedHashSet<>(undirectedGraph.getEdges());
+        edges.add(new Edge<>(new Vertex<>('G'), new Vertex<>('H'), 1));
+        edges.add(new Edge<>(new Vertex<>('H'), new Vertex<>('G'), 1));
+        Set<Vertex<Character>> vertices = new HashSet<>(undirectedGraph.getVertices());
+        vertices.add(new Vertex<>('G'));
+        vertices.add(new Vertex<>('H'));
+        vertices.add(new Vertex<>('I'));
+        CompactGraph<Character> compact = new CompactGraph<>(new Graph<>(vertices, edges));
+        assertFalse(GraphAlgorithms.isConnected(compact));
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        ConnectedComponents<Character> components =
+            GraphAlgorithms.connectedComponents(compact, pool);
+        pool.shutdown();
+        int a = compact.getId(new Vertex<>('A'));
+        int g = compact.getId(new Vertex<>('G'));
+        int h = compact.getId(new Vertex<>('H'));
+        int i = compact.getId(new Vertex<>('I'));
+        assertEquals(3, components.getComponentCount());
+        assertEquals(6, components.getComponentSize(a));
+        assertEquals(2, components.getComponentSize(g));
+        assertEquals(1, components.getComponentSize(i));
+        assertTrue(components.connected(a, compact.getId(new Vertex<>('F'))));
+        assertFalse(components.connected(a, g));
+        assertEquals(Math.min(g, h), components.getLabel(h));
+        assertEquals(i, components.getLabel(i));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testConnectedComponentsLarge() {
+        CompactGraph<Integer> compact = createRandomUndirectedGraph(10000,
+            5000, 25, 23);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        ConnectedComponents<Integer> components =
+            GraphAlgorithms.connectedComponents(compact, pool);
+        pool.shutdown();
+
+        IntDisjointSet expected = new IntDisjointSet(compact.getVertexCount());
+        int[] offsets = compact.getOffsets();
+        int[] targets = compact.getTargets();
+        for (int u = 0; u < compact.getVertexCount(); u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                expected.union(u, targets[e]);
+            }
+        }
+        int[] lowest = new int[compact.getVertexCount()];
+        Arrays.fill(lowest, Integer.MAX_VALUE);
+        for (int v = 0; v < compact.getVertexCount(); v++) {
+            int root = expected.find(v);
+            lowest[root] = Math.min(lowest[root], v);
+        }
+
+        assertEquals(expected.getComponentCount(),
+            components.getComponentCount());
+        assertEquals(25, components.getComponentCount());
+        for (int v = 0; v < compact.getVertexCount(); v++) {
+            assertEquals(lowest[expected.find(v)], components.getLabel(v));
+            assertEquals(expected.getComponentSize(v),
+                components.getComponentSize(v));
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testShortestPathCache() {
+        MutableGraph<Character> graph = new MutableGraph<>(undirectedGraph);
+        ShortestPathCache<Character> cache = new ShortestPathCache<>(graph, 2);
+        Vertex<Character> a = new Vertex<>('A');
+
+        assertEquals(GraphAlgorithms.dijkstras(a, undirectedGraph),
+            cache.dijkstras(a));
+        assertTrue(cache.get(a) == cache.get(a));
+        assertEquals(1, cache.getMissCount());
+        assertEquals(2, cache.getHitCount());
+
+        cache.get(new Vertex<>('B'));
+        cache.get(new Vertex<>('C'));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+
+        graph.updateWeight(a, new Vertex<>('B'), 1);
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getInvalidationCount());
+        assertEquals(1, cache.get(a).getDistance(graph.getId(new Vertex<>('B'))));
+        assertEquals(4, cache.getMissCount());
+
+        cache.get(a).getDistances()[graph.getId(new Vertex<>('B'))] = 99;
+        assertEquals(1, cache.get(a).getDistance(graph.getId(new Vertex<>('B'))));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testShortestPathCacheConcurrent() throws Exception {
+        ShortestPathCache<Character> cache = new ShortestPathCache<>(
+            new CompactGraph<>(undirectedGraph), 6);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        List<ShortestPaths<Character>> results = pool.submit(() ->
+            IntStream.range(0, 600).parallel()
+                .mapToObj(i -> cache.get(new Vertex<>((char) ('A' + i % 6))))
+                .collect(Collectors.toList())).get();
+        pool.shutdown();
+
+        assertEquals(6, cache.getMissCount());
+        assertEquals(594, cache.getHitCount());
+        for (int i = 0; i < results.size(); i++) {
+            assertTrue(results.get(i) == results.get(i % 6));
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testAllPairsShortestPaths() {
+        CompactGraph<Integer> compact = new CompactGraph<>(directedGraph);
+        AllPairsShortestPaths<Integer> auto =
+            GraphAlgorithms.allPairsShortestPaths(compact);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        AllPairsShortestPaths<Integer> floyd =
+            AllPairsShortestPaths.floydWarshall(compact, pool);
+        AllPairsShortestPaths<Integer> dijkstra =
+            AllPairsShortestPaths.repeatedDijkstra(compact, pool);
+        pool.shutdown();
+
+        assertArrayEquals(floyd.getMatrix(), dijkstra.getMatrix());
+        assertArrayEquals(floyd.getMatrix(), auto.getMatrix());
+        for (Vertex<Integer> v : directedGraph.getVertices()) {
+            assertEquals(GraphAlgorithms.dijkstras(v, directedGraph),
+                floyd.getDistances(v));
+        }
+        assertEquals(AllPairsShortestPaths.UNREACHABLE,
+            floyd.getDistance(new Vertex<>(2), new Vertex<>(1)));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testAllPairsShortestPathsLongPaths() {
+        List<Vertex<Integer>> vertices = List.of(new Vertex<>(0),
+            new Vertex<>(1), new Vertex<>(2), new Vertex<>(3));
+        CompactGraph<Integer> compact = new CompactGraph<>(vertices,
+            new int[] {0, 2, 3, 4, 4}, new int[] {1, 3, 2, 3},
+            new int[] {1_500_000_000, 5, 600_000_000, 1_500_000_000});
+        ForkJoinPool pool = new ForkJoinPool(2);
+        AllPairsShortestPaths<Integer> floyd =
+            AllPairsShortestPaths.floydWarshall(compact, pool);
+
+        assertArrayEquals(AllPairsShortestPaths.repeatedDijkstra(compact,
+            pool).getMatrix(), floyd.getMatrix());
+        assertEquals(2_100_000_000, floyd.getDistance(0, 2));
+        assertEquals(5, floyd.getDistance(0, 3));
+
+        CompactGraph<Integer> tooLong = new CompactGraph<>(vertices,
+            new int[] {0, 1, 2, 2, 2}, new int[] {1, 2},
+            new int[] {1_500_000_000, 1_500_000_000});
+        int thrown = 0;
+        try {
+            AllPairsShortestPaths.floydWarshall(tooLong, pool);
+        } catch (ArithmeticException expected) {
+            thrown++;
+        }
+        try {
+            AllPairsShortestPaths.repeatedDijkstra(tooLong, pool);
+        } catch (ArithmeticException expected) {
+            thrown++;
+        }
+        pool.shutdown();
+        assertEquals(2, thrown);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testStronglyConnectedComponentsChain() {
+        List<Vertex<Integer>> vertices = new ArrayList<>();
+        int[] offsets = new int[10001];
+        int[] targets = new int[14999];
+        int e = 0;
+        for (int i = 0; i < 10000; i++) {
+            vertices.add(new Vertex<>(i));
+            targets[e++] = i % 2 == 0 ? i + 1 : i - 1;
+            if (i % 2 == 1 && i + 1 < 10000) {
+                targets[e++] = i + 1;
+            }
+            offsets[i + 1] = e;
+        }
+        CompactGraph<Integer> compact = new CompactGraph<>(vertices, offsets,
+            targets, new int[e]);
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        StronglyConnectedComponents<Integer> parallel =
+            StronglyConnectedComponents.of(compact, pool);
+        pool.shutdown();
+        assertEquals(5000, parallel.getComponentCount());
+        assertEquals(5000, StronglyConnectedComponents.of(compact).getComponentCount());
+        for (int i = 0; i < 10000; i += 2) {
+            int c = parallel.getComponent(compact.getId(new Vertex<>(i)));
+            assertEquals(c, parallel.getComponent(compact.getId(new Vertex<>(i + 1))));
+            assertEquals(i / 2, c);
+        }
+    }
+}
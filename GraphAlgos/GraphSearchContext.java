@@ -0,0 +1,288 @@
+import java.util.Arrays;
+
+/**
+ * A reusable workspace for running many searches back to back on one
+ * CompactGraph without allocating. The context owns the distance, parent,
+ * visit order, stack and heap arrays, and every search starts a new
+ * generation instead of clearing them: an entry only counts as set when its
+ * stamp matches the current generation, so starting a search is O(1) and a
+ * search costs time only for the vertices it touches.
+ *
+ * The results of the last search stay readable until the next search
+ * starts. Stamps start at 0 and generations at 1, so a context that has not
+ * searched yet reports no vertex reached. A context is not thread-safe; give each worker thread its own.
+ */
+public class GraphSearchContext {
+
+    private final CompactGraph<?> graph;
+    private final long[] distance;
+    private final int[] parent;
+    private final int[] stamp;
+    private final int[] order;
+    private final int[] stack;
+    private final int[] cursor;
+    private final IndexedDaryHeap heap;
+    private int generation;
+    private int visitedCount;
+
+    /**
+     * Creates a context for searches on the given graph.
+     *
+     * @param graph the compact graph to search
+     * @throws IllegalArgumentException if the graph is null
+     */
+    public GraphSearchContext(CompactGraph<?> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("The graph is null");
+        }
+        this.graph = graph;
+        int vertexCount = graph.getVertexCount();
+        distance = new long[vertexCount];
+        parent = new int[vertexCount];
+        stamp = new int[vertexCount];
+        order = new int[vertexCount];
+        stack = new int[vertexCount];
+        cursor = new int[vertexCount];
+        heap = new IndexedDaryHeap(vertexCount);
+        generation = 1;
+    }
+
+    /**
+     * Gets the graph this context searches.
+     *
+     * @return the graph
+     */
+    public CompactGraph<?> getGraph() {
+        return graph;
+    }
+
+    /**
+     * Runs a breadth first search from the source. Afterwards the visit
+     * order holds the reached vertices, the distance of each is its level
+     * and the parent is the vertex it was discovered from.
+     *
+     * @param source the id of the vertex to begin the bfs on
+     * @return the number of vertices reached
+     * @throws IllegalArgumentException if the source is not a vertex id of
+     *                                  the graph
+     */
+    public int bfs(int source) {
+        start(source);
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int head = 0;
+        while (head < visitedCount) {
+            int curr = order[head++];
+            for (int e = offsets[curr]; e < offsets[curr + 1]; e++) {
+                int next = targets[e];
+                if (stamp[next] != generation) {
+                    reach(next, distance[curr] + 1, curr);
+                    order[visitedCount++] = next;
+                }
+            }
+        }
+        return visitedCount;
+    }
+
+    /**
+     * Runs a depth first search from the source, in the same order as the
+     * recursive dfs. Afterwards the visit order holds the reached vertices,
+     * the distance of each is its depth in the dfs tree and the parent is
+     * the vertex it was discovered from.
+     *
+     * @param source the id of the vertex to begin the dfs on
+     * @return the number of vertices reached
+     * @throws IllegalArgumentException if the source is not a vertex id of
+     *                                  the graph
+     */
+    public int dfs(int source) {
+        start(source);
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int top = 0;
+        stack[top] = source;
+        cursor[top] = offsets[source];
+        top++;
+        while (top > 0) {
+            int curr = stack[top - 1];
+            int e = cursor[top - 1];
+            int end = offsets[curr + 1];
+            while (e < end && stamp[targets[e]] == generation) {
+                e++;
+            }
+            if (e == end) {
+                top--;
+            } else {
+                int next = targets[e];
+                cursor[top - 1] = e + 1;
+                reach(next, top, curr);
+                order[visitedCount++] = next;
+                stack[top] = next;
+                cursor[top] = offsets[next];
+                top++;
+            }
+        }
+        return visitedCount;
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from the source to every reachable vertex
+     * (you may assume non-negative edge weights). Afterwards the visit order
+     * holds the vertices in the order they were settled.
+     *
+     * @param source the id of the source vertex
+     * @return the number of vertices settled
+     * @throws IllegalArgumentException if the source is not a vertex id of
+     *                                  the graph
+     */
+    public int dijkstras(int source) {
+        return dijkstras(source, -1);
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from the source, stopping as soon as the
+     * target is settled (you may assume non-negative edge weights).
+     * Afterwards the visit order holds the vertices in the order they were
+     * settled.
+     *
+     * @param source the id of the source vertex
+     * @param target the id of the vertex to stop at, or -1 to settle every
+     *               reachable vertex
+     * @return the number of vertices settled
+     * @throws IllegalArgumentException if the source is not a vertex id of
+     *                                  the graph
+     */
+    public int dijkstras(int source, int target) {
+        start(source);
+        visitedCount = 0;
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getWeights();
+        heap.insertOrDecrease(source, 0);
+        while (!heap.isEmpty()) {
+            int curr = heap.poll();
+            order[visitedCount++] = curr;
+            if (curr == target) {
+                break;
+            }
+            long base = distance[curr];
+            for (int e = offsets[curr]; e < offsets[curr + 1]; e++) {
+                int next = targets[e];
+                long candidate = base + weights[e];
+                if (stamp[next] != generation) {
+                    reach(next, candidate, curr);
+                    heap.insertOrDecrease(next, candidate);
+                } else if (candidate < distance[next] && heap.contains(next)) {
+                    distance[next] = candidate;
+                    parent[next] = curr;
+                    heap.insertOrDecrease(next, candidate);
+                }
+            }
+        }
+        heap.clear();
+        return visitedCount;
+    }
+
+    /**
+     * Gets the number of vertices in the visit order of the last search.
+     *
+     * @return the visited count
+     */
+    public int getVisitedCount() {
+        return visitedCount;
+    }
+
+    /**
+     * Gets a vertex of the visit order of the last search.
+     *
+     * @param index the position in the visit order
+     * @return the id of the vertex at that position
+     * @throws IndexOutOfBoundsException if the index is not in
+     *                                   [0, visited count)
+     */
+    public int getVisited(int index) {
+        if (index < 0 || index >= visitedCount) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of range.");
+        }
+        return order[index];
+    }
+
+    /**
+     * Checks if the last search reached a vertex.
+     *
+     * @param id the id of the vertex
+     * @return true if the vertex was reached
+     */
+    public boolean isReached(int id) {
+        return stamp[id] == generation;
+    }
+
+    /**
+     * Gets the distance of a vertex in the last search. For a Dijkstra run
+     * that stopped at a target, distances of vertices that were reached but
+     * not settled are only upper bounds.
+     *
+     * @param id the id of the vertex
+     * @return the distance, or {@link ShortestPaths#UNREACHABLE} if the
+     * vertex was not reached
+     */
+    public long getDistance(int id) {
+        return stamp[id] == generation ? distance[id]
+            : ShortestPaths.UNREACHABLE;
+    }
+
+    /**
+     * Gets the vertex a vertex was reached from in the last search.
+     *
+     * @param id the id of the vertex
+     * @return the id of the parent, or {@link ShortestPaths#NO_PARENT} for
+     * the source and unreached vertices
+     */
+    public int getParent(int id) {
+        return stamp[id] == generation ? parent[id] : ShortestPaths.NO_PARENT;
+    }
+
+    /**
+     * Moves the generation counter, so that tests can reach its wrap
+     * without 2^32 searches.
+     *
+     * @param generation the generation of the last search
+     */
+    void setGeneration(int generation) {
+        this.generation = generation;
+    }
+
+    /**
+     * Starts a new generation and reaches the source.
+     *
+     * @param source the id of the source vertex
+     * @throws IllegalArgumentException if the source is not a vertex id of
+     *                                  the graph
+     */
+    private void start(int source) {
+        if (source < 0 || source >= stamp.length) {
+            throw new IllegalArgumentException("The source is out of range");
+        }
+        generation++;
+        if (generation == 0) {
+            Arrays.fill(stamp, 0);
+            generation = 1;
+        }
+        reach(source, 0, ShortestPaths.NO_PARENT);
+        order[0] = source;
+        visitedCount = 1;
+    }
+
+    /**
+     * Marks a vertex reached in this generation.
+     *
+     * @param id the id of the vertex
+     * @param d  its distance
+     * @param p  its parent
+     */
+    private void reach(int id, long d, int p) {
+        stamp[id] = generation;
+        distance[id] = d;
+        parent[id] = p;
+    }
+}
@@ -0,0 +1,16 @@
+/**
+ * An estimate of the remaining distance to the target of an A* search. To
+ * keep the search exact, the estimate must be admissible: it may never be
+ * larger than the true shortest distance from the vertex to the target.
+ */
+public interface Heuristic<T> {
+
+    /**
+     * Estimates the shortest distance from a vertex to the target.
+     *
+     * @param vertex the vertex to estimate from
+     * @param target the target of the search
+     * @return a lower bound on the distance from vertex to target
+     */
+    long estimate(Vertex<T> vertex, Vertex<T> target);
+}
@@ -0,0 +1,236 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * An indexed d-ary min heap of int ids in the range [0, capacity), each with
+ * a long key. Besides insert and poll it supports a true decrease-key, since
+ * the heap position of every id is tracked, so no stale entries are ever
+ * left behind.
+ *
+ * Keys are stored next to the ids in heap order, so sifting only touches the
+ * heap arrays. A larger arity makes the heap shallower, which speeds up
+ * decrease-key at the cost of more comparisons per poll.
+ */
+public class IndexedDaryHeap {
+
+    /**
+     * The arity used when none is given.
+     */
+    public static final int DEFAULT_ARITY = 4;
+
+    private final int arity;
+    private final int[] heap;
+    private final long[] heapKeys;
+    private final int[] position;
+    private int size;
+
+    /**
+     * Creates an empty heap with the default arity.
+     *
+     * @param capacity the number of ids the heap can hold
+     * @throws IllegalArgumentException if the capacity is negative
+     */
+    public IndexedDaryHeap(int capacity) {
+        this(capacity, DEFAULT_ARITY);
+    }
+
+    /**
+     * Creates an empty heap.
+     *
+     * @param capacity the number of ids the heap can hold
+     * @param arity    the number of children of each heap node
+     * @throws IllegalArgumentException if the capacity is negative or the
+     *                                  arity is less than 2
+     */
+    public IndexedDaryHeap(int capacity, int arity) {
+        if (capacity < 0 || arity < 2) {
+            throw new IllegalArgumentException("Capacity cannot be negative and arity must be at least 2.");
+        }
+        this.arity = arity;
+        heap = new int[capacity];
+        heapKeys = new long[capacity];
+        position = new int[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    /**
+     * Gets the number of ids in the heap.
+     *
+     * @return the size of the heap
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the heap is empty.
+     *
+     * @return true if the heap holds no ids
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Checks if an id is in the heap.
+     *
+     * @param id the id to check
+     * @return true if the id is in the heap
+     */
+    public boolean contains(int id) {
+        return position[id] >= 0;
+    }
+
+    /**
+     * Gets the key of an id in the heap.
+     *
+     * @param id the id to look up
+     * @return the key of the id
+     * @throws NoSuchElementException if the id is not in the heap
+     */
+    public long getKey(int id) {
+        if (position[id] < 0) {
+            throw new NoSuchElementException("The id is not in the heap.");
+        }
+        return heapKeys[position[id]];
+    }
+
+    /**
+     * Inserts an id that is not in the heap, or lowers the key of an id that
+     * is. Nothing changes if the id is in the heap with a key that is not
+     * larger than the given one.
+     *
+     * @param id  the id to insert or update
+     * @param key the new key of the id
+     * @return true if the heap changed
+     */
+    public boolean insertOrDecrease(int id, long key) {
+        int pos = position[id];
+        if (pos < 0) {
+            pos = size++;
+        } else if (heapKeys[pos] <= key) {
+            return false;
+        }
+        siftUp(pos, id, key);
+        return true;
+    }
+
+    /**
+     * Gets the id with the smallest key without removing it.
+     *
+     * @return the id with the smallest key
+     * @throws NoSuchElementException if the heap is empty
+     */
+    public int peek() {
+        if (size == 0) {
+            throw new NoSuchElementException("The heap is empty.");
+        }
+        return heap[0];
+    }
+
+    /**
+     * Gets the smallest key in the heap.
+     *
+     * @return the smallest key
+     * @throws NoSuchElementException if the heap is empty
+     */
+    public long peekKey() {
+        if (size == 0) {
+            throw new NoSuchElementException("The heap is empty.");
+        }
+        return heapKeys[0];
+    }
+
+    /**
+     * Removes and returns the id with the smallest key.
+     *
+     * @return the id with the smallest key
+     * @throws NoSuchElementException if the heap is empty
+     */
+    public int poll() {
+        if (size == 0) {
+            throw new NoSuchElementException("The heap is empty.");
+        }
+        int min = heap[0];
+        position[min] = -1;
+        size--;
+        if (size > 0) {
+            siftDown(0, heap[size], heapKeys[size]);
+        }
+        return min;
+    }
+
+    /**
+     * Removes every id from the heap, in time proportional to the number of
+     * ids left in it.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Moves an id up from a heap position until its parent's key is not
+     * larger.
+     *
+     * @param pos the position to start from
+     * @param id  the id to place
+     * @param key the key of the id
+     */
+    private void siftUp(int pos, int id, long key) {
+        while (pos > 0) {
+            int parent = (pos - 1) / arity;
+            if (heapKeys[parent] <= key) {
+                break;
+            }
+            place(pos, heap[parent], heapKeys[parent]);
+            pos = parent;
+        }
+        place(pos, id, key);
+    }
+
+    /**
+     * Moves an id down from a heap position until none of its children has
+     * a smaller key.
+     *
+     * @param pos the position to start from
+     * @param id  the id to place
+     * @param key the key of the id
+     */
+    private void siftDown(int pos, int id, long key) {
+        while (true) {
+            int first = pos * arity + 1;
+            if (first >= size) {
+                break;
+            }
+            int last = Math.min(first + arity, size);
+            int best = first;
+            for (int c = first + 1; c < last; c++) {
+                if (heapKeys[c] < heapKeys[best]) {
+                    best = c;
+                }
+            }
+            if (heapKeys[best] >= key) {
+                break;
+            }
+            place(pos, heap[best], heapKeys[best]);
+            pos = best;
+        }
+        place(pos, id, key);
+    }
+
+    /**
+     * Stores an id and key at a heap position.
+     *
+     * @param pos the heap position
+     * @param id  the id
+     * @param key the key of the id
+     */
+    private void place(int pos, int id, long key) {
+        heap[pos] = id;
+        heapKeys[pos] = key;
+        position[id] = pos;
+    }
+}
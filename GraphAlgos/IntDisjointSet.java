@@ -0,0 +1,159 @@
+import java.util.Arrays;
+
+/**
+ * A disjoint set over the int ids [0, n), stored as flat parent and size
+ * arrays. find halves the path on the way to the root, pointing every other
+ * node at its grandparent, and union links the smaller tree under the larger
+ * one, so both run in nearly constant amortized time without recursion.
+ *
+ * The set also tracks how many components there are and how many elements
+ * each one holds, and it can grow one element at a time, so callers that
+ * map their own keys to ids do not have to know the element count up front.
+ */
+public class IntDisjointSet {
+
+    private int[] parent;
+    private int[] size;
+    private int elementCount;
+    private int componentCount;
+
+    /**
+     * Creates n singleton sets.
+     *
+     * @param n the number of elements
+     * @throws IllegalArgumentException if n is negative
+     */
+    public IntDisjointSet(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("The number of elements cannot be negative.");
+        }
+        parent = new int[n];
+        size = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+            size[i] = 1;
+        }
+        elementCount = n;
+        componentCount = n;
+    }
+
+    /**
+     * Adds a new singleton set, growing the arrays if they are full.
+     *
+     * @return the id of the new element, which is the old element count
+     */
+    public int add() {
+        if (elementCount == parent.length) {
+            int capacity = Math.max(8, elementCount * 2);
+            parent = Arrays.copyOf(parent, capacity);
+            size = Arrays.copyOf(size, capacity);
+        }
+        int id = elementCount++;
+        parent[id] = id;
+        size[id] = 1;
+        componentCount++;
+        return id;
+    }
+
+    /**
+     * Gets the number of elements.
+     *
+     * @return the element count
+     */
+    public int getElementCount() {
+        return elementCount;
+    }
+
+    /**
+     * Gets the number of disjoint sets.
+     *
+     * @return the component count
+     */
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    /**
+     * Gets the number of elements in the set containing x.
+     *
+     * @param x the element
+     * @return the size of its set
+     */
+    public int getComponentSize(int x) {
+        return size[find(x)];
+    }
+
+    /**
+     * Finds the root of the set containing x.
+     *
+     * @param x the element
+     * @return the root of its set
+     */
+    public int find(int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+
+    /**
+     * Finds the root of the set containing x without shortening any paths.
+     * Since it never writes, any number of threads may call it at once as
+     * long as no thread is joining sets.
+     *
+     * @param x the element
+     * @return the root of its set
+     */
+    public int root(int x) {
+        while (parent[x] != x) {
+            x = parent[x];
+        }
+        return x;
+    }
+
+    /**
+     * Points every element directly at the root of its set, so that the
+     * next find of any element takes a single step.
+     */
+    public void compact() {
+        for (int i = 0; i < elementCount; i++) {
+            parent[i] = find(i);
+        }
+    }
+
+    /**
+     * Joins the sets containing x and y.
+     *
+     * @param x the first element
+     * @param y the second element
+     * @return true if they were in different sets
+     */
+    public boolean union(int x, int y) {
+        int xRoot = find(x);
+        int yRoot = find(y);
+        if (xRoot == yRoot) {
+            return false;
+        }
+        if (size[xRoot] < size[yRoot]) {
+            int swap = xRoot;
+            xRoot = yRoot;
+            yRoot = swap;
+        }
+        parent[yRoot] = xRoot;
+        size[xRoot] += size[yRoot];
+        componentCount--;
+        return true;
+    }
+
+    /**
+     * Checks if two elements are in the same set.
+     *
+     * @param x the first element
+     * @param y the second element
+     * @return true if they share a set
+     */
+    public boolean sameSet(int x, int y) {
+        return find(x) == find(y);
+    }
+}
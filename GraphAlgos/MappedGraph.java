@@ -0,0 +1,355 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.Function;
+
+/**
+ * A read-only CSR graph stored in a file and opened by memory mapping it, so
+ * opening costs no parsing and no heap copies, and processes that open the
+ * same file share its pages. Vertex data is kept as string labels.
+ *
+ * The file is a sequence of big-endian sections, each right after the last:
+ * a header of three ints (magic, V, E), then offsets (V + 1 ints), targets
+ * (E ints) and weights (E ints) laid out as in {@link CompactGraph}, then
+ * the label dictionary: the vertex ids sorted by label (V ints), the byte
+ * offset of every label (V + 1 ints) and the UTF-8 bytes of all labels in id
+ * order. Labels are sorted by their unsigned UTF-8 bytes, so
+ * {@link #getId(String)} is a binary search over the mapped bytes.
+ *
+ * Each section is mapped on its own, so a section may hold up to 2 GB. The
+ * buffers are only read with absolute gets, so any number of threads may
+ * use one graph at once.
+ */
+public final class MappedGraph {
+
+    /**
+     * Identifies a graph file.
+     */
+    private static final int MAGIC = 0x43535201;
+
+    /**
+     * The size of the header in bytes.
+     */
+    private static final int HEADER_BYTES = 3 * Integer.BYTES;
+
+    private final int vertexCount;
+    private final int edgeCount;
+    private final IntBuffer offsets;
+    private final IntBuffer targets;
+    private final IntBuffer weights;
+    private final IntBuffer labelOrder;
+    private final IntBuffer labelOffsets;
+    private final ByteBuffer labels;
+
+    /**
+     * Wraps the mapped sections of a graph file.
+     *
+     * @param vertexCount  the number of vertices
+     * @param edgeCount    the number of edges
+     * @param offsets      the edge offsets
+     * @param targets      the target id of every edge
+     * @param weights      the weight of every edge
+     * @param labelOrder   the vertex ids sorted by label
+     * @param labelOffsets the byte offset of every label
+     * @param labels       the label bytes
+     */
+    private MappedGraph(int vertexCount, int edgeCount, IntBuffer offsets,
+        IntBuffer targets, IntBuffer weights, IntBuffer labelOrder,
+        IntBuffer labelOffsets, ByteBuffer labels) {
+        this.vertexCount = vertexCount;
+        this.edgeCount = edgeCount;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.labelOrder = labelOrder;
+        this.labelOffsets = labelOffsets;
+        this.labels = labels;
+    }
+
+    /**
+     * Writes a compact graph to a file, labelling every vertex with the
+     * string form of its data.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the graph to write
+     * @param file  the file to write to
+     * @throws IOException if writing fails
+     * @throws IllegalArgumentException if any input is null
+     */
+    public static <T> void write(CompactGraph<T> graph, File file)
+        throws IOException {
+        write(graph, file, String::valueOf);
+    }
+
+    /**
+     * Writes a compact graph to a file.
+     *
+     * @param <T>    the generic typing of the data
+     * @param graph  the graph to write
+     * @param file   the file to write to
+     * @param labels gives the label of the data of every vertex
+     * @throws IOException if writing fails
+     * @throws IllegalArgumentException if any input is null or two vertices
+     *                                  get the same label
+     */
+    public static <T> void write(CompactGraph<T> graph, File file,
+        Function<? super T, String> labels) throws IOException {
+        if (graph == null || file == null || labels == null) {
+            throw new IllegalArgumentException("An input is null");
+        }
+        int vertexCount = graph.getVertexCount();
+        byte[][] encoded = new byte[vertexCount][];
+        for (int i = 0; i < vertexCount; i++) {
+            encoded[i] = labels.apply(graph.getVertex(i).getData())
+                .getBytes(StandardCharsets.UTF_8);
+        }
+        Integer[] order = new Integer[vertexCount];
+        for (int i = 0; i < vertexCount; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(i -> encoded[i],
+            Arrays::compareUnsigned));
+        for (int i = 1; i < vertexCount; i++) {
+            if (Arrays.equals(encoded[order[i - 1]], encoded[order[i]])) {
+                throw new IllegalArgumentException("Two vertices have the label "
+                    + new String(encoded[order[i]], StandardCharsets.UTF_8));
+            }
+        }
+
+        try (DataOutputStream data = new DataOutputStream(
+            new BufferedOutputStream(new FileOutputStream(file)))) {
+            data.writeInt(MAGIC);
+            data.writeInt(vertexCount);
+            data.writeInt(graph.getEdgeCount());
+            writeArray(data, graph.getOffsets());
+            writeArray(data, graph.getTargets());
+            writeArray(data, graph.getWeights());
+            for (int id : order) {
+                data.writeInt(id);
+            }
+            int labelOffset = 0;
+            data.writeInt(labelOffset);
+            for (byte[] label : encoded) {
+                labelOffset = Math.addExact(labelOffset, label.length);
+                data.writeInt(labelOffset);
+            }
+            for (byte[] label : encoded) {
+                data.write(label);
+            }
+        }
+    }
+
+    /**
+     * Opens a graph file written by {@link #write(CompactGraph, File)} by
+     * mapping it into memory.
+     *
+     * @param file the file to open
+     * @return the mapped graph
+     * @throws IOException if reading fails or the file does not hold a graph
+     * @throws IllegalArgumentException if the file is null
+     */
+    public static MappedGraph open(File file) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("The file is null");
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+            FileChannel channel = raf.getChannel()) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("The file does not hold a graph.");
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                HEADER_BYTES);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("The file does not hold a graph.");
+            }
+            int vertexCount = header.getInt(Integer.BYTES);
+            int edgeCount = header.getInt(2 * Integer.BYTES);
+            long position = HEADER_BYTES;
+            long labelBytesStart = position + Integer.BYTES
+                * (3L * vertexCount + 2L * edgeCount + 2);
+            if (vertexCount < 0 || edgeCount < 0
+                || channel.size() < labelBytesStart) {
+                throw new IOException("The graph file is truncated.");
+            }
+            IntBuffer offsets = mapInts(channel, position, vertexCount + 1);
+            position += Integer.BYTES * (vertexCount + 1L);
+            IntBuffer targets = mapInts(channel, position, edgeCount);
+            position += Integer.BYTES * (long) edgeCount;
+            IntBuffer weights = mapInts(channel, position, edgeCount);
+            position += Integer.BYTES * (long) edgeCount;
+            IntBuffer labelOrder = mapInts(channel, position, vertexCount);
+            position += Integer.BYTES * (long) vertexCount;
+            IntBuffer labelOffsets = mapInts(channel, position,
+                vertexCount + 1);
+            int labelLength = labelOffsets.get(vertexCount);
+            if (channel.size() < labelBytesStart + labelLength) {
+                throw new IOException("The graph file is truncated.");
+            }
+            ByteBuffer labels = channel.map(FileChannel.MapMode.READ_ONLY,
+                labelBytesStart, labelLength);
+            return new MappedGraph(vertexCount, edgeCount, offsets, targets,
+                weights, labelOrder, labelOffsets, labels);
+        }
+    }
+
+    /**
+     * Gets the number of vertices.
+     *
+     * @return the number of vertices
+     */
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * Gets the number of directed edges.
+     *
+     * @return the number of edges
+     */
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Gets the edge offsets: the out-edges of vertex v are at the indices
+     * [offsets.get(v), offsets.get(v + 1)) of the targets and weights.
+     *
+     * @return a read-only view of the mapped offsets
+     */
+    public IntBuffer getOffsets() {
+        return offsets.duplicate();
+    }
+
+    /**
+     * Gets the target id of every edge.
+     *
+     * @return a read-only view of the mapped targets
+     */
+    public IntBuffer getTargets() {
+        return targets.duplicate();
+    }
+
+    /**
+     * Gets the weight of every edge.
+     *
+     * @return a read-only view of the mapped weights
+     */
+    public IntBuffer getWeights() {
+        return weights.duplicate();
+    }
+
+    /**
+     * Gets the number of out-edges of a vertex.
+     *
+     * @param id the id of the vertex
+     * @return the out-degree
+     * @throws IndexOutOfBoundsException if the id is not in [0, V)
+     */
+    public int getDegree(int id) {
+        return offsets.get(id + 1) - offsets.get(id);
+    }
+
+    /**
+     * Gets the label of a vertex.
+     *
+     * @param id the id of the vertex
+     * @return the label
+     * @throws IndexOutOfBoundsException if the id is not in [0, V)
+     */
+    public String getLabel(int id) {
+        int start = labelOffsets.get(id);
+        byte[] bytes = new byte[labelOffsets.get(id + 1) - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = labels.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Finds the id of the vertex with a label.
+     *
+     * @param label the label to look up
+     * @return the id of the vertex, or -1 if no vertex has the label
+     * @throws IllegalArgumentException if the label is null
+     */
+    public int getId(String label) {
+        if (label == null) {
+            throw new IllegalArgumentException("The label is null");
+        }
+        byte[] key = label.getBytes(StandardCharsets.UTF_8);
+        int lo = 0;
+        int hi = vertexCount - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int id = labelOrder.get(mid);
+            int cmp = compareLabel(id, key);
+            if (cmp < 0) {
+                lo = mid + 1;
+            } else if (cmp > 0) {
+                hi = mid - 1;
+            } else {
+                return id;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Compares the label of a vertex with a key by their unsigned bytes.
+     *
+     * @param id  the id of the vertex
+     * @param key the UTF-8 bytes to compare with
+     * @return a negative number, zero or a positive number as the label is
+     * less than, equal to or greater than the key
+     */
+    private int compareLabel(int id, byte[] key) {
+        int start = labelOffsets.get(id);
+        int length = labelOffsets.get(id + 1) - start;
+        for (int i = 0; i < Math.min(length, key.length); i++) {
+            int cmp = Byte.toUnsignedInt(labels.get(start + i))
+                - Byte.toUnsignedInt(key[i]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return length - key.length;
+    }
+
+    /**
+     * Maps a section of ints.
+     *
+     * @param channel  the file to map
+     * @param position the byte position of the section
+     * @param count    the number of ints in it
+     * @return the mapped ints
+     * @throws IOException if mapping fails
+     */
+    private static IntBuffer mapInts(FileChannel channel, long position,
+        int count) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, position,
+            Integer.BYTES * (long) count).asIntBuffer();
+    }
+
+    /**
+     * Writes the ints of an array.
+     *
+     * @param data  the stream to write to
+     * @param array the array to write
+     * @throws IOException if writing fails
+     */
+    private static void writeArray(DataOutputStream data, int[] array)
+        throws IOException {
+        for (int value : array) {
+            data.writeInt(value);
+        }
+    }
+}
@@ -0,0 +1,338 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A directed graph that can change after it is built. Like
+ * {@link CompactGraph}, every vertex gets a dense integer id in the order it
+ * was added, but edges are kept in per-vertex maps from neighbor id to
+ * weight, in both directions, so that edges can be added, removed and
+ * reweighted in constant time. There is at most one edge per ordered pair of
+ * vertices, and weights must be non-negative.
+ *
+ * Every change bumps a version number and is reported to the registered
+ * listeners, which is how structures such as {@link DynamicShortestPaths}
+ * keep up with the graph without rescanning it. Use
+ * {@link #toCompactGraph()} to run the static algorithms on the current
+ * state.
+ *
+ * This class is not thread-safe.
+ */
+public class MutableGraph<T> {
+
+    /**
+     * Weight reported to listeners for an edge that does not exist, before it
+     * is added or after it is removed. It compares above every real weight,
+     * so an insertion reads as a decrease and a removal as an increase.
+     */
+    public static final int NO_EDGE = Integer.MAX_VALUE;
+
+    /**
+     * Receives every edge change of a graph.
+     */
+    public interface EdgeListener {
+
+        /**
+         * Called after the weight of an edge changed.
+         *
+         * @param source    the id of the source of the edge
+         * @param target    the id of the target of the edge
+         * @param oldWeight the weight before, or {@link #NO_EDGE} if the edge
+         *                  was just added
+         * @param newWeight the weight after, or {@link #NO_EDGE} if the edge
+         *                  was just removed
+         */
+        void edgeChanged(int source, int target, int oldWeight, int newWeight);
+    }
+
+    private final VertexIndex<T> index = new VertexIndex<>();
+    private final List<Map<Integer, Integer>> outEdges = new ArrayList<>();
+    private final List<Map<Integer, Integer>> inEdges = new ArrayList<>();
+    private final List<EdgeListener> listeners = new ArrayList<>();
+    private int edgeCount;
+    private long version;
+
+    /**
+     * Creates an empty graph.
+     */
+    public MutableGraph() {
+    }
+
+    /**
+     * Creates a mutable copy of a graph. Of several edges between the same
+     * ordered pair of vertices only the lightest is kept.
+     *
+     * @param graph the graph to copy
+     * @throws IllegalArgumentException if the graph is null or has a
+     *                                  negative weight
+     */
+    public MutableGraph(Graph<T> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph cannot be null.");
+        }
+        for (Vertex<T> v : graph.getVertices()) {
+            addVertex(v);
+        }
+        for (Edge<T> e : graph.getEdges()) {
+            int weight = getWeight(e.getU(), e.getV());
+            if (weight == NO_EDGE) {
+                addEdge(e);
+            } else if (e.getWeight() < weight) {
+                updateWeight(e.getU(), e.getV(), e.getWeight());
+            }
+        }
+    }
+
+    /**
+     * Registers a listener for every later edge change.
+     *
+     * @param listener the listener to add
+     * @throws IllegalArgumentException if the listener is null
+     */
+    public void addListener(EdgeListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("The listener is null");
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * Stops a listener from receiving edge changes.
+     *
+     * @param listener the listener to remove
+     * @return true if the listener was registered
+     */
+    public boolean removeListener(EdgeListener listener) {
+        return listeners.remove(listener);
+    }
+
+    /**
+     * Adds a vertex unless it is already in the graph.
+     *
+     * @param vertex the vertex to add
+     * @return the id of the vertex
+     * @throws IllegalArgumentException if the vertex is null
+     */
+    public int addVertex(Vertex<T> vertex) {
+        if (vertex == null) {
+            throw new IllegalArgumentException("The vertex is null");
+        }
+        int count = index.size();
+        int id = index.add(vertex);
+        if (id == count) {
+            outEdges.add(new LinkedHashMap<>());
+            inEdges.add(new LinkedHashMap<>());
+            version++;
+        }
+        return id;
+    }
+
+    /**
+     * Adds an edge, adding its end vertices first if they are not in the
+     * graph yet.
+     *
+     * @param edge the edge to add
+     * @throws IllegalArgumentException if the edge is null, its weight is
+     *                                  negative, or its ends already have an
+     *                                  edge between them
+     */
+    public void addEdge(Edge<T> edge) {
+        if (edge == null) {
+            throw new IllegalArgumentException("The edge is null");
+        }
+        checkWeight(edge.getWeight());
+        int u = addVertex(edge.getU());
+        int v = addVertex(edge.getV());
+        if (outEdges.get(u).containsKey(v)) {
+            throw new IllegalArgumentException("The graph already has the edge " + edge);
+        }
+        edgeCount++;
+        set(u, v, NO_EDGE, edge.getWeight());
+    }
+
+    /**
+     * Removes the edge from u to v.
+     *
+     * @param u the source of the edge
+     * @param v the target of the edge
+     * @return the weight of the removed edge, or {@link #NO_EDGE} if there
+     * was none
+     */
+    public int removeEdge(Vertex<T> u, Vertex<T> v) {
+        int weight = getWeight(u, v);
+        if (weight != NO_EDGE) {
+            edgeCount--;
+            set(index.getId(u), index.getId(v), weight, NO_EDGE);
+        }
+        return weight;
+    }
+
+    /**
+     * Changes the weight of the edge from u to v.
+     *
+     * @param u      the source of the edge
+     * @param v      the target of the edge
+     * @param weight the new weight
+     * @return the old weight
+     * @throws IllegalArgumentException if there is no such edge or the
+     *                                  weight is negative
+     */
+    public int updateWeight(Vertex<T> u, Vertex<T> v, int weight) {
+        checkWeight(weight);
+        int old = getWeight(u, v);
+        if (old == NO_EDGE) {
+            throw new IllegalArgumentException("The graph has no edge from " + u + " to " + v);
+        }
+        if (old != weight) {
+            set(index.getId(u), index.getId(v), old, weight);
+        }
+        return old;
+    }
+
+    /**
+     * Gets the weight of the edge from u to v.
+     *
+     * @param u the source of the edge
+     * @param v the target of the edge
+     * @return the weight, or {@link #NO_EDGE} if there is no such edge
+     */
+    public int getWeight(Vertex<T> u, Vertex<T> v) {
+        int uId = index.getId(u);
+        int vId = index.getId(v);
+        if (uId < 0 || vId < 0) {
+            return NO_EDGE;
+        }
+        return outEdges.get(uId).getOrDefault(vId, NO_EDGE);
+    }
+
+    /**
+     * Gets the version of the graph, which changes whenever a vertex or edge
+     * is added, removed or reweighted.
+     *
+     * @return the version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the number of vertices.
+     *
+     * @return the number of vertices
+     */
+    public int getVertexCount() {
+        return index.size();
+    }
+
+    /**
+     * Gets the number of directed edges.
+     *
+     * @return the number of edges
+     */
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Gets the id of a vertex.
+     *
+     * @param vertex the vertex to look up
+     * @return the id of the vertex, or -1 if it is not in the graph
+     */
+    public int getId(Vertex<T> vertex) {
+        return index.getId(vertex);
+    }
+
+    /**
+     * Gets the vertex with the given id.
+     *
+     * @param id the id of the vertex
+     * @return the vertex
+     * @throws IndexOutOfBoundsException if the id is not in [0, V)
+     */
+    public Vertex<T> getVertex(int id) {
+        return index.getVertex(id);
+    }
+
+    /**
+     * Gets the out-edges of a vertex.
+     *
+     * @param id the id of the vertex
+     * @return a read-only map from target id to weight, in insertion order
+     */
+    public Map<Integer, Integer> getOutEdges(int id) {
+        return Collections.unmodifiableMap(outEdges.get(id));
+    }
+
+    /**
+     * Gets the in-edges of a vertex.
+     *
+     * @param id the id of the vertex
+     * @return a read-only map from source id to weight, in insertion order
+     */
+    public Map<Integer, Integer> getInEdges(int id) {
+        return Collections.unmodifiableMap(inEdges.get(id));
+    }
+
+    /**
+     * Copies the current state into a compact graph with the same vertex
+     * ids.
+     *
+     * @return a new compact graph
+     */
+    public CompactGraph<T> toCompactGraph() {
+        int vertexCount = index.size();
+        int[] offsets = new int[vertexCount + 1];
+        int[] targets = new int[edgeCount];
+        int[] weights = new int[edgeCount];
+        int e = 0;
+        for (int u = 0; u < vertexCount; u++) {
+            for (Map.Entry<Integer, Integer> edge
+                : outEdges.get(u).entrySet()) {
+                targets[e] = edge.getKey();
+                weights[e] = edge.getValue();
+                e++;
+            }
+            offsets[u + 1] = e;
+        }
+        return new CompactGraph<>(new ArrayList<>(index.asList()), offsets,
+            targets, weights);
+    }
+
+    /**
+     * Stores a new weight for an edge in both directions and reports it.
+     *
+     * @param u         the id of the source
+     * @param v         the id of the target
+     * @param oldWeight the weight before, or {@link #NO_EDGE}
+     * @param newWeight the weight after, or {@link #NO_EDGE} to remove it
+     */
+    private void set(int u, int v, int oldWeight, int newWeight) {
+        if (newWeight == NO_EDGE) {
+            outEdges.get(u).remove(v);
+            inEdges.get(v).remove(u);
+        } else {
+            outEdges.get(u).put(v, newWeight);
+            inEdges.get(v).put(u, newWeight);
+        }
+        version++;
+        for (EdgeListener listener : listeners) {
+            listener.edgeChanged(u, v, oldWeight, newWeight);
+        }
+    }
+
+    /**
+     * Checks that a weight can be stored.
+     *
+     * @param weight the weight to check
+     * @throws IllegalArgumentException if the weight is negative or
+     *                                  {@link #NO_EDGE}
+     */
+    private static void checkWeight(int weight) {
+        if (weight < 0 || weight == NO_EDGE) {
+            throw new IllegalArgumentException("Weights must be in [0, Integer.MAX_VALUE).");
+        }
+    }
+}
@@ -0,0 +1,290 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A level-synchronous breadth first search over a CompactGraph that expands
+ * every frontier in parallel on a ForkJoinPool.
+ *
+ * Each level is split into ranges of frontier vertices that are scanned by
+ * separate tasks. Vertices are claimed with a compare-and-set on a shared
+ * level array, so each vertex is added to the next frontier exactly once.
+ *
+ * In deterministic mode every level takes two passes. The first pass lets
+ * each newly reached vertex keep the lowest frontier position that reaches
+ * it, and the second pass emits each vertex from that position only. The
+ * visit order is then exactly the order of the sequential bfs. Otherwise the
+ * order within a level depends on which task claims a vertex first.
+ */
+public final class ParallelBfs {
+
+    /**
+     * Level given to vertices that are not reachable from the source.
+     */
+    public static final int UNREACHED = -1;
+
+    /**
+     * Frontier ranges at most this long are scanned by a single task.
+     */
+    private static final int GRAIN = 512;
+
+    /**
+     * Hidden constructor, this class only has static methods.
+     */
+    private ParallelBfs() {
+    }
+
+    /**
+     * Performs a parallel bfs on the common pool, starting at the given
+     * vertex.
+     *
+     * @param <T>           the generic typing of the data
+     * @param start         the vertex to begin the bfs on
+     * @param graph         the compact graph to search through
+     * @param deterministic whether the order must match the sequential bfs
+     * @return list of vertices in visited order
+     * @throws IllegalArgumentException if any input is null, or if start
+     *                                  doesn't exist in the graph
+     */
+    public static <T> List<Vertex<T>> bfs(Vertex<T> start,
+        CompactGraph<T> graph, boolean deterministic) {
+        return bfs(start, graph, ForkJoinPool.commonPool(), deterministic);
+    }
+
+    /**
+     * Performs a parallel bfs on the given pool, starting at the given
+     * vertex.
+     *
+     * @param <T>           the generic typing of the data
+     * @param start         the vertex to begin the bfs on
+     * @param graph         the compact graph to search through
+     * @param pool          the pool to run the search on
+     * @param deterministic whether the order must match the sequential bfs
+     * @return list of vertices in visited order
+     * @throws IllegalArgumentException if any input is null, or if start
+     *                                  doesn't exist in the graph
+     */
+    public static <T> List<Vertex<T>> bfs(Vertex<T> start,
+        CompactGraph<T> graph, ForkJoinPool pool, boolean deterministic) {
+        if (graph == null || start == null || graph.getId(start) < 0) {
+            throw new IllegalArgumentException("An input is null or the graph doesnt contain the start");
+        }
+        int[] order = visitOrder(graph.getId(start), graph, pool,
+            deterministic);
+        List<Vertex<T>> visited = new ArrayList<>(order.length);
+        for (int id : order) {
+            visited.add(graph.getVertex(id));
+        }
+        return visited;
+    }
+
+    /**
+     * Finds the ids of every vertex reachable from the source, in visited
+     * order.
+     *
+     * @param source        the id of the vertex to begin the bfs on
+     * @param graph         the compact graph to search through
+     * @param pool          the pool to run the search on
+     * @param deterministic whether the order must match the sequential bfs
+     * @return the reached vertex ids in visited order
+     * @throws IllegalArgumentException if the graph or pool is null or the
+     *                                  source is not a vertex id of the graph
+     */
+    public static int[] visitOrder(int source, CompactGraph<?> graph,
+        ForkJoinPool pool, boolean deterministic) {
+        return new Search(source, graph, pool, deterministic).run().order;
+    }
+
+    /**
+     * Finds the bfs level of every vertex, starting at the source.
+     *
+     * @param source the id of the vertex to begin the bfs on
+     * @param graph  the compact graph to search through
+     * @param pool   the pool to run the search on
+     * @return the level of every vertex indexed by id, 0 for source and
+     * {@link #UNREACHED} for vertices that cannot be reached
+     * @throws IllegalArgumentException if the graph or pool is null or the
+     *                                  source is not a vertex id of the graph
+     */
+    public static int[] levels(int source, CompactGraph<?> graph,
+        ForkJoinPool pool) {
+        Search search = new Search(source, graph, pool, false).run();
+        int[] level = new int[graph.getVertexCount()];
+        for (int i = 0; i < level.length; i++) {
+            level[i] = search.level.get(i);
+        }
+        return level;
+    }
+
+    /**
+     * The shared state of one parallel search.
+     */
+    private static final class Search {
+
+        private final CompactGraph<?> graph;
+        private final ForkJoinPool pool;
+        private final boolean deterministic;
+        private final AtomicIntegerArray level;
+        private final AtomicIntegerArray owner;
+        private int[] order;
+
+        /**
+         * Sets up a search from the source.
+         *
+         * @param source        the id of the vertex to begin the bfs on
+         * @param graph         the compact graph to search through
+         * @param pool          the pool to run the search on
+         * @param deterministic whether the order must match the sequential
+         *                      bfs
+         */
+        Search(int source, CompactGraph<?> graph, ForkJoinPool pool,
+            boolean deterministic) {
+            if (graph == null || pool == null || source < 0
+                || source >= graph.getVertexCount()) {
+                throw new IllegalArgumentException("An input is null or the source is out of range");
+            }
+            this.graph = graph;
+            this.pool = pool;
+            this.deterministic = deterministic;
+            int[] initial = new int[graph.getVertexCount()];
+            Arrays.fill(initial, UNREACHED);
+            level = new AtomicIntegerArray(initial);
+            level.set(source, 0);
+            if (deterministic) {
+                Arrays.fill(initial, Integer.MAX_VALUE);
+                owner = new AtomicIntegerArray(initial);
+            } else {
+                owner = null;
+            }
+            order = new int[] {source};
+        }
+
+        /**
+         * Expands levels until the frontier is empty.
+         *
+         * @return this search
+         */
+        Search run() {
+            int[] frontier = order;
+            int[] visited = new int[graph.getVertexCount()];
+            int visitedCount = 0;
+            int depth = 0;
+            while (frontier.length > 0) {
+                System.arraycopy(frontier, 0, visited, visitedCount,
+                    frontier.length);
+                visitedCount += frontier.length;
+                depth++;
+                if (deterministic) {
+                    pool.invoke(new Expand(this, frontier, 0, frontier.length,
+                        depth, true));
+                }
+                frontier = pool.invoke(new Expand(this, frontier, 0,
+                    frontier.length, depth, false));
+            }
+            order = Arrays.copyOf(visited, visitedCount);
+            return this;
+        }
+    }
+
+    /**
+     * Scans the out-edges of a range of frontier vertices. In the claim pass
+     * of a deterministic search it only records owners and returns nothing;
+     * otherwise it returns the vertices it added to the next frontier.
+     */
+    private static final class Expand extends RecursiveTask<int[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Search search;
+        private final int[] frontier;
+        private final int lo;
+        private final int hi;
+        private final int depth;
+        private final boolean claimPass;
+
+        /**
+         * Creates a task over frontier[lo, hi).
+         *
+         * @param search    the search being run
+         * @param frontier  the current frontier
+         * @param lo        the first position to scan
+         * @param hi        one past the last position to scan
+         * @param depth     the level of the next frontier
+         * @param claimPass whether this is the owner pass of a deterministic
+         *                  search
+         */
+        Expand(Search search, int[] frontier, int lo, int hi, int depth,
+            boolean claimPass) {
+            this.search = search;
+            this.frontier = frontier;
+            this.lo = lo;
+            this.hi = hi;
+            this.depth = depth;
+            this.claimPass = claimPass;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                Expand left = new Expand(search, frontier, lo, mid, depth,
+                    claimPass);
+                left.fork();
+                int[] right = new Expand(search, frontier, mid, hi, depth,
+                    claimPass).compute();
+                int[] leftResult = left.join();
+                if (claimPass) {
+                    return null;
+                }
+                int[] merged = Arrays.copyOf(leftResult,
+                    leftResult.length + right.length);
+                System.arraycopy(right, 0, merged, leftResult.length,
+                    right.length);
+                return merged;
+            }
+            int[] offsets = search.graph.getOffsets();
+            int[] targets = search.graph.getTargets();
+            AtomicIntegerArray level = search.level;
+            AtomicIntegerArray owner = search.owner;
+            int[] found = new int[16];
+            int foundCount = 0;
+            for (int p = lo; p < hi; p++) {
+                int curr = frontier[p];
+                for (int e = offsets[curr]; e < offsets[curr + 1]; e++) {
+                    int v = targets[e];
+                    if (claimPass) {
+                        if (level.get(v) == UNREACHED) {
+                            int current = owner.get(v);
+                            while (p < current
+                                && !owner.compareAndSet(v, current, p)) {
+                                current = owner.get(v);
+                            }
+                        }
+                        continue;
+                    }
+                    boolean claimed;
+                    if (search.deterministic) {
+                        claimed = owner.get(v) == p
+                            && level.get(v) == UNREACHED;
+                        if (claimed) {
+                            level.set(v, depth);
+                        }
+                    } else {
+                        claimed = level.get(v) == UNREACHED
+                            && level.compareAndSet(v, UNREACHED, depth);
+                    }
+                    if (claimed) {
+                        if (foundCount == found.length) {
+                            found = Arrays.copyOf(found, foundCount * 2);
+                        }
+                        found[foundCount++] = v;
+                    }
+                }
+            }
+            return claimPass ? null : Arrays.copyOf(found, foundCount);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * A parallel for loop over a range of ints on a ForkJoinPool, shared by the
+ * parallel algorithms of this package. The range is split in halves until
+ * each part is at most a grain long, and each part runs the action for its
+ * indices in increasing order. The call returns once every index has run.
+ */
+final class ParallelFor extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int lo;
+    private final int hi;
+    private final IntConsumer action;
+    private final int grain;
+
+    /**
+     * Creates a task over the indices [lo, hi).
+     *
+     * @param lo     the first index
+     * @param hi     one past the last index
+     * @param action the action to run
+     * @param grain  the most indices one task runs
+     */
+    private ParallelFor(int lo, int hi, IntConsumer action, int grain) {
+        this.lo = lo;
+        this.hi = hi;
+        this.action = action;
+        this.grain = grain;
+    }
+
+    /**
+     * Runs an action for every index in [0, n) on a pool.
+     *
+     * @param pool   the pool to run on
+     * @param n      the number of indices
+     * @param action the action to run
+     * @param grain  the most indices one task runs, at least 1
+     */
+    static void forEach(ForkJoinPool pool, int n, IntConsumer action,
+        int grain) {
+        pool.invoke(new ParallelFor(0, n, action, grain));
+    }
+
+    @Override
+    protected void compute() {
+        if (hi - lo > grain) {
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new ParallelFor(lo, mid, action, grain),
+                new ParallelFor(mid, hi, action, grain));
+            return;
+        }
+        for (int i = lo; i < hi; i++) {
+            action.accept(i);
+        }
+    }
+}
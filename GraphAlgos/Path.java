@@ -0,0 +1,73 @@
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of a point-to-point shortest path query: the length of the
+ * path and the vertices along it, from source to target.
+ */
+public final class Path<T> {
+
+    private final long distance;
+    private final List<Vertex<T>> vertices;
+
+    /**
+     * Creates a path.
+     *
+     * @param distance the total weight of the path, or
+     *                 {@link ShortestPaths#UNREACHABLE} if there is none
+     * @param vertices the vertices of the path, from source to target
+     */
+    public Path(long distance, List<Vertex<T>> vertices) {
+        this.distance = distance;
+        this.vertices = Collections.unmodifiableList(vertices);
+    }
+
+    /**
+     * Gets the total weight of the path.
+     *
+     * @return the distance from source to target, or
+     * {@link ShortestPaths#UNREACHABLE} if the target cannot be reached
+     */
+    public long getDistance() {
+        return distance;
+    }
+
+    /**
+     * Gets the vertices of the path.
+     *
+     * @return the vertices from source to target, or an empty list if the
+     * target cannot be reached
+     */
+    public List<Vertex<T>> getVertices() {
+        return vertices;
+    }
+
+    /**
+     * Checks if the target can be reached from the source.
+     *
+     * @return true if a path exists
+     */
+    public boolean exists() {
+        return distance != ShortestPaths.UNREACHABLE;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o != null && o instanceof Path<?>) {
+            Path<?> p = (Path<?>) o;
+            return distance == p.distance && vertices.equals(p.vertices);
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(distance) ^ vertices.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "Path " + vertices + " with distance " + distance;
+    }
+}
@@ -0,0 +1,204 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Shortest path queries between a single source and a single target over a
+ * CompactGraph. Edge weights are assumed to be non-negative.
+ *
+ * Without a heuristic the query runs a bidirectional Dijkstra: a forward
+ * search from the source over the graph and a backward search from the
+ * target over its cached transpose, always expanding the side whose next key
+ * is smaller. The query stops once the two smallest keys add up to at least
+ * the best path seen where the searches meet, which settles far fewer
+ * vertices than a full single-source run.
+ *
+ * With a heuristic the query runs A* forward from the source instead,
+ * ordering the heap by distance plus the estimate to the target, and stops
+ * when the target is polled.
+ */
+public final class PointToPointSearch {
+
+    /**
+     * Marks heuristic estimates that have not been computed yet.
+     */
+    private static final long UNKNOWN = Long.MIN_VALUE;
+
+    /**
+     * Hidden constructor, this class only has static methods.
+     */
+    private PointToPointSearch() {
+    }
+
+    /**
+     * Finds a shortest path between two vertices with a bidirectional
+     * Dijkstra.
+     *
+     * @param <T>    the generic typing of the data
+     * @param source the id of the source vertex
+     * @param target the id of the target vertex
+     * @param graph  the compact graph to search through
+     * @return the shortest path from source to target
+     * @throws IllegalArgumentException if the graph is null or either id is
+     *                                  not a vertex id of the graph
+     */
+    public static <T> Path<T> bidirectional(int source, int target,
+        CompactGraph<T> graph) {
+        checkIds(source, target, graph);
+        if (source == target) {
+            return new Path<>(0, Collections.singletonList(
+                graph.getVertex(source)));
+        }
+        CompactGraph<T> reverse = graph.transpose();
+        int vertexCount = graph.getVertexCount();
+        long[] distForward = new long[vertexCount];
+        long[] distBackward = new long[vertexCount];
+        int[] parentForward = new int[vertexCount];
+        int[] parentBackward = new int[vertexCount];
+        Arrays.fill(distForward, ShortestPaths.UNREACHABLE);
+        Arrays.fill(distBackward, ShortestPaths.UNREACHABLE);
+        Arrays.fill(parentForward, ShortestPaths.NO_PARENT);
+        Arrays.fill(parentBackward, ShortestPaths.NO_PARENT);
+        BitSet settledForward = new BitSet(vertexCount);
+        BitSet settledBackward = new BitSet(vertexCount);
+        IndexedDaryHeap forward = new IndexedDaryHeap(vertexCount);
+        IndexedDaryHeap backward = new IndexedDaryHeap(vertexCount);
+        distForward[source] = 0;
+        distBackward[target] = 0;
+        forward.insertOrDecrease(source, 0);
+        backward.insertOrDecrease(target, 0);
+
+        long best = ShortestPaths.UNREACHABLE;
+        int meetForward = ShortestPaths.NO_PARENT;
+        int meetBackward = ShortestPaths.NO_PARENT;
+        while (!forward.isEmpty() && !backward.isEmpty()
+            && forward.peekKey() + backward.peekKey() < best) {
+            boolean isForward = forward.peekKey() <= backward.peekKey();
+            CompactGraph<T> side = isForward ? graph : reverse;
+            IndexedDaryHeap heap = isForward ? forward : backward;
+            long[] dist = isForward ? distForward : distBackward;
+            long[] otherDist = isForward ? distBackward : distForward;
+            int[] parent = isForward ? parentForward : parentBackward;
+            BitSet settled = isForward ? settledForward : settledBackward;
+            int[] offsets = side.getOffsets();
+            int[] targets = side.getTargets();
+            int[] weights = side.getWeights();
+
+            int curr = heap.poll();
+            settled.set(curr);
+            for (int e = offsets[curr]; e < offsets[curr + 1]; e++) {
+                int next = targets[e];
+                long candidate = dist[curr] + weights[e];
+                if (candidate < dist[next] && !settled.get(next)) {
+                    dist[next] = candidate;
+                    parent[next] = curr;
+                    heap.insertOrDecrease(next, candidate);
+                }
+                if (otherDist[next] != ShortestPaths.UNREACHABLE
+                    && candidate + otherDist[next] < best) {
+                    best = candidate + otherDist[next];
+                    meetForward = isForward ? curr : next;
+                    meetBackward = isForward ? next : curr;
+                }
+            }
+        }
+        if (best == ShortestPaths.UNREACHABLE) {
+            return new Path<>(best, Collections.emptyList());
+        }
+        List<Vertex<T>> path = new ArrayList<>();
+        for (int v = meetForward; v != ShortestPaths.NO_PARENT;
+            v = parentForward[v]) {
+            path.add(graph.getVertex(v));
+        }
+        Collections.reverse(path);
+        for (int v = meetBackward; v != ShortestPaths.NO_PARENT;
+            v = parentBackward[v]) {
+            path.add(graph.getVertex(v));
+        }
+        return new Path<>(best, path);
+    }
+
+    /**
+     * Finds a shortest path between two vertices with A*. Vertices are
+     * reopened when a shorter path to them is found after they were polled,
+     * so the result is exact for any admissible heuristic.
+     *
+     * @param <T>       the generic typing of the data
+     * @param source    the id of the source vertex
+     * @param target    the id of the target vertex
+     * @param graph     the compact graph to search through
+     * @param heuristic the admissible estimate of the distance to target
+     * @return the shortest path from source to target
+     * @throws IllegalArgumentException if any input is null or either id is
+     *                                  not a vertex id of the graph
+     */
+    public static <T> Path<T> aStar(int source, int target,
+        CompactGraph<T> graph, Heuristic<T> heuristic) {
+        checkIds(source, target, graph);
+        if (heuristic == null) {
+            throw new IllegalArgumentException("The heuristic cannot be null.");
+        }
+        int vertexCount = graph.getVertexCount();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getWeights();
+        Vertex<T> goal = graph.getVertex(target);
+        long[] dist = new long[vertexCount];
+        long[] estimate = new long[vertexCount];
+        int[] parent = new int[vertexCount];
+        Arrays.fill(dist, ShortestPaths.UNREACHABLE);
+        Arrays.fill(estimate, UNKNOWN);
+        Arrays.fill(parent, ShortestPaths.NO_PARENT);
+        IndexedDaryHeap heap = new IndexedDaryHeap(vertexCount);
+        dist[source] = 0;
+        heap.insertOrDecrease(source, 0);
+
+        while (!heap.isEmpty()) {
+            int curr = heap.poll();
+            if (curr == target) {
+                break;
+            }
+            for (int e = offsets[curr]; e < offsets[curr + 1]; e++) {
+                int next = targets[e];
+                long candidate = dist[curr] + weights[e];
+                if (candidate < dist[next]) {
+                    dist[next] = candidate;
+                    parent[next] = curr;
+                    if (estimate[next] == UNKNOWN) {
+                        estimate[next] = heuristic.estimate(
+                            graph.getVertex(next), goal);
+                    }
+                    heap.insertOrDecrease(next, candidate + estimate[next]);
+                }
+            }
+        }
+        if (dist[target] == ShortestPaths.UNREACHABLE) {
+            return new Path<>(dist[target], Collections.emptyList());
+        }
+        List<Vertex<T>> path = new ArrayList<>();
+        for (int v = target; v != ShortestPaths.NO_PARENT; v = parent[v]) {
+            path.add(graph.getVertex(v));
+        }
+        Collections.reverse(path);
+        return new Path<>(dist[target], path);
+    }
+
+    /**
+     * Checks the arguments of a query.
+     *
+     * @param source the id of the source vertex
+     * @param target the id of the target vertex
+     * @param graph  the compact graph to search through
+     * @throws IllegalArgumentException if the graph is null or either id is
+     *                                  not a vertex id of the graph
+     */
+    private static void checkIds(int source, int target,
+        CompactGraph<?> graph) {
+        if (graph == null || source < 0 || source >= graph.getVertexCount()
+            || target < 0 || target >= graph.getVertexCount()) {
+            throw new IllegalArgumentException("The graph is null or an id is out of range");
+        }
+    }
+}
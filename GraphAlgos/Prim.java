@@ -0,0 +1,155 @@
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Prim's algorithm for the Minimal Spanning Tree (MST) of a CompactGraph.
+ * The tree grows from a start vertex by repeatedly adding the lightest edge
+ * that leaves it. Unlike Kruskal's, no edge is ever queued: each vertex
+ * outside the tree only keeps the weight of its lightest edge into the
+ * tree, which is lowered as the tree grows.
+ *
+ * The heap variant keeps those weights in an {@link IndexedDaryHeap} with
+ * decrease-key and runs in O(E log V / log d). The dense variant keeps them
+ * in a plain array and scans it for the minimum, which is O(V^2) but has no
+ * heap overhead, so it wins once E is close to V^2.
+ */
+public final class Prim {
+
+    /**
+     * Hidden constructor, this class only has static methods.
+     */
+    private Prim() {
+    }
+
+    /**
+     * Finds the MST of a compact graph using an indexed heap.
+     *
+     * @param <T>    the generic typing of the data
+     * @param source the id of the vertex to grow the tree from
+     * @param graph  the compact graph to span
+     * @return the MST of the graph or null if there is no valid MST
+     * @throws IllegalArgumentException if the graph is null or the source is
+     *                                  not a vertex id of the graph
+     */
+    public static <T> Set<Edge<T>> heap(int source, CompactGraph<T> graph) {
+        checkSource(source, graph);
+        int vertexCount = graph.getVertexCount();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getWeights();
+        int[] parent = new int[vertexCount];
+        int[] parentWeight = new int[vertexCount];
+        boolean[] inTree = new boolean[vertexCount];
+        Arrays.fill(parent, ShortestPaths.NO_PARENT);
+        IndexedDaryHeap heap = new IndexedDaryHeap(vertexCount);
+        heap.insertOrDecrease(source, 0);
+
+        int added = 0;
+        while (!heap.isEmpty()) {
+            int curr = heap.poll();
+            inTree[curr] = true;
+            added++;
+            for (int e = offsets[curr]; e < offsets[curr + 1]; e++) {
+                int next = targets[e];
+                if (!inTree[next] && heap.insertOrDecrease(next, weights[e])) {
+                    parent[next] = curr;
+                    parentWeight[next] = weights[e];
+                }
+            }
+        }
+        return toTree(graph, added, parent, parentWeight);
+    }
+
+    /**
+     * Finds the MST of a compact graph by scanning an array of the lightest
+     * edge weight into the tree for every vertex.
+     *
+     * @param <T>    the generic typing of the data
+     * @param source the id of the vertex to grow the tree from
+     * @param graph  the compact graph to span
+     * @return the MST of the graph or null if there is no valid MST
+     * @throws IllegalArgumentException if the graph is null or the source is
+     *                                  not a vertex id of the graph
+     */
+    public static <T> Set<Edge<T>> dense(int source, CompactGraph<T> graph) {
+        checkSource(source, graph);
+        int vertexCount = graph.getVertexCount();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getWeights();
+        int[] parent = new int[vertexCount];
+        int[] parentWeight = new int[vertexCount];
+        long[] key = new long[vertexCount];
+        boolean[] inTree = new boolean[vertexCount];
+        Arrays.fill(parent, ShortestPaths.NO_PARENT);
+        Arrays.fill(key, Long.MAX_VALUE);
+        key[source] = 0;
+
+        int added = 0;
+        int curr = source;
+        while (curr != ShortestPaths.NO_PARENT) {
+            inTree[curr] = true;
+            added++;
+            for (int e = offsets[curr]; e < offsets[curr + 1]; e++) {
+                int next = targets[e];
+                if (!inTree[next] && weights[e] < key[next]) {
+                    key[next] = weights[e];
+                    parent[next] = curr;
+                    parentWeight[next] = weights[e];
+                }
+            }
+            curr = ShortestPaths.NO_PARENT;
+            long min = Long.MAX_VALUE;
+            for (int v = 0; v < vertexCount; v++) {
+                if (!inTree[v] && key[v] < min) {
+                    min = key[v];
+                    curr = v;
+                }
+            }
+        }
+        return toTree(graph, added, parent, parentWeight);
+    }
+
+    /**
+     * Turns the parent of every vertex into a set of MST edges in both
+     * directions.
+     *
+     * @param <T>          the generic typing of the data
+     * @param graph        the compact graph that was spanned
+     * @param added        the number of vertices the tree reached
+     * @param parent       the tree parent of every vertex
+     * @param parentWeight the weight of the edge to the parent
+     * @return the MST, or null if the tree did not reach every vertex
+     */
+    private static <T> Set<Edge<T>> toTree(CompactGraph<T> graph, int added,
+        int[] parent, int[] parentWeight) {
+        if (added < graph.getVertexCount()) {
+            return null;
+        }
+        Set<Edge<T>> mst = new HashSet<>();
+        for (int v = 0; v < parent.length; v++) {
+            if (parent[v] != ShortestPaths.NO_PARENT) {
+                Vertex<T> u = graph.getVertex(parent[v]);
+                Vertex<T> w = graph.getVertex(v);
+                mst.add(new Edge<>(u, w, parentWeight[v]));
+                mst.add(new Edge<>(w, u, parentWeight[v]));
+            }
+        }
+        return mst;
+    }
+
+    /**
+     * Checks the arguments of a run.
+     *
+     * @param source the id of the vertex to grow the tree from
+     * @param graph  the compact graph to span
+     * @throws IllegalArgumentException if the graph is null or the source is
+     *                                  not a vertex id of the graph
+     */
+    private static void checkSource(int source, CompactGraph<?> graph) {
+        if (graph == null || source < 0 || source >= graph.getVertexCount()) {
+            throw new IllegalArgumentException("The graph is null or the source is out of range");
+        }
+    }
+}
@@ -0,0 +1,69 @@
+import java.util.Arrays;
+
+/**
+ * LSD radix sorting of int keys into a permutation, for ordering edges by
+ * weight without comparisons or per-edge objects. Like
+ * {@code Sorting.lsdRadixSort} it distributes keys into buckets digit by
+ * digit, but a digit is a byte, buckets are counted into offsets instead of
+ * being kept as lists, and the sign bit is flipped so negative keys sort
+ * first. Passes where every key has the same byte are skipped.
+ */
+public final class RadixSort {
+
+    /**
+     * Hidden constructor, this class only has static methods.
+     */
+    private RadixSort() {
+    }
+
+    /**
+     * Finds the stable sorted order of the keys.
+     *
+     * @param keys the keys to order, left unchanged
+     * @return the indices of keys from smallest key to largest, with equal
+     * keys in index order
+     * @throws IllegalArgumentException if the keys are null
+     */
+    public static int[] sortedOrder(int[] keys) {
+        if (keys == null) {
+            throw new IllegalArgumentException("the keys are null");
+        }
+        int n = keys.length;
+        int[] order = new int[n];
+        int[] orderTmp = new int[n];
+        int[] current = new int[n];
+        int[] currentTmp = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+            current[i] = keys[i] ^ Integer.MIN_VALUE;
+        }
+        int[] counts = new int[256];
+        for (int shift = 0; shift < 32; shift += 8) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < n; i++) {
+                counts[(current[i] >>> shift) & 0xFF]++;
+            }
+            if (n == 0 || counts[(current[0] >>> shift) & 0xFF] == n) {
+                continue;
+            }
+            int sum = 0;
+            for (int b = 0; b < 256; b++) {
+                int c = counts[b];
+                counts[b] = sum;
+                sum += c;
+            }
+            for (int i = 0; i < n; i++) {
+                int slot = counts[(current[i] >>> shift) & 0xFF]++;
+                currentTmp[slot] = current[i];
+                orderTmp[slot] = order[i];
+            }
+            int[] swap = current;
+            current = currentTmp;
+            currentTmp = swap;
+            swap = order;
+            order = orderTmp;
+            orderTmp = swap;
+        }
+        return order;
+    }
+}
@@ -0,0 +1,268 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * A size-bounded cache of single-source shortest path results, for callers
+ * that ask for the distances from the same few sources over and over.
+ * Results are kept as {@link ShortestPaths}, two primitive arrays per
+ * source, rather than as maps from vertex to distance, and the least
+ * recently used source is evicted once the cache is full.
+ *
+ * Results are keyed by the version of the graph and the source id. A cache
+ * over a {@link MutableGraph} checks the version of the graph on every
+ * lookup; once it changed, every entry is stale, so all of them are dropped
+ * at once and the next miss searches a fresh compact copy of the graph. A
+ * cache over a CompactGraph never goes stale.
+ *
+ * Hits, misses, evictions and invalidations are counted. One cache can
+ * serve many threads: its bookkeeping is synchronized, but searches run
+ * outside the lock. A miss puts a future for its source in the cache and
+ * only then searches, so lookups of other sources never wait behind it and
+ * lookups of the same source wait for that one search instead of repeating
+ * it. The graph must not change during a lookup. Cached results are shared
+ * between callers, which is safe because {@link ShortestPaths} never hands
+ * out its own arrays.
+ *
+ * @param <T> the generic typing of the data
+ */
+public class ShortestPathCache<T> {
+
+    private final MutableGraph<T> mutable;
+    private final int capacity;
+    private final Map<Integer, CompletableFuture<ShortestPaths<T>>> entries;
+    private CompactGraph<T> graph;
+    private long version;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * Creates a cache over a graph that may change.
+     *
+     * @param graph    the graph to search
+     * @param capacity the most sources to keep results for
+     * @throws IllegalArgumentException if the graph is null or the capacity
+     *                                  is not positive
+     */
+    public ShortestPathCache(MutableGraph<T> graph, int capacity) {
+        this(graph, null, capacity);
+        if (graph == null) {
+            throw new IllegalArgumentException("The graph is null");
+        }
+        version = graph.getVersion();
+    }
+
+    /**
+     * Creates a cache over a graph that never changes.
+     *
+     * @param graph    the graph to search
+     * @param capacity the most sources to keep results for
+     * @throws IllegalArgumentException if the graph is null or the capacity
+     *                                  is not positive
+     */
+    public ShortestPathCache(CompactGraph<T> graph, int capacity) {
+        this(null, graph, capacity);
+        if (graph == null) {
+            throw new IllegalArgumentException("The graph is null");
+        }
+    }
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param mutable  the graph that may change, or null
+     * @param graph    the compact graph to search, or null to copy mutable
+     *                 on the first miss
+     * @param capacity the most sources to keep results for
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    private ShortestPathCache(MutableGraph<T> mutable, CompactGraph<T> graph,
+        int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        this.mutable = mutable;
+        this.graph = graph;
+        this.capacity = capacity;
+        entries = new LinkedHashMap<Integer,
+            CompletableFuture<ShortestPaths<T>>>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(
+                Map.Entry<Integer, CompletableFuture<ShortestPaths<T>>> eldest) {
+                if (size() > ShortestPathCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Gets the shortest paths from a source, searching the graph with
+     * {@link Dijkstra} only if they are not cached for the current version.
+     * If another thread is already searching from the source, waits for its
+     * result.
+     *
+     * @param source the vertex to begin the search on
+     * @return the distances and shortest path tree from source
+     * @throws IllegalArgumentException if the source is null or not in the
+     *                                  graph
+     */
+    public ShortestPaths<T> get(Vertex<T> source) {
+        if (source == null) {
+            throw new IllegalArgumentException("The source is null");
+        }
+        CompletableFuture<ShortestPaths<T>> result;
+        CompactGraph<T> searched = null;
+        int id;
+        synchronized (this) {
+            checkVersion();
+            id = mutable == null ? graph.getId(source)
+                : mutable.getId(source);
+            if (id < 0) {
+                throw new IllegalArgumentException("The graph does not contain the source");
+            }
+            result = entries.get(id);
+            if (result != null) {
+                hits++;
+            } else {
+                misses++;
+                if (graph == null) {
+                    graph = mutable.toCompactGraph();
+                }
+                searched = graph;
+                result = new CompletableFuture<>();
+                entries.put(id, result);
+            }
+        }
+        if (searched != null) {
+            try {
+                result.complete(Dijkstra.run(id, searched,
+                    IndexedDaryHeap.DEFAULT_ARITY));
+            } catch (RuntimeException | Error e) {
+                synchronized (this) {
+                    entries.remove(id, result);
+                }
+                result.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the shortest distances from a source in the form
+     * {@link GraphAlgorithms#dijkstras(Vertex, Graph)} returns them.
+     *
+     * @param source the vertex to begin the search on
+     * @return a read-only map of the shortest distance to every vertex, with
+     * Integer.MAX_VALUE for unreachable vertices
+     * @throws IllegalArgumentException if the source is null or not in the
+     *                                  graph
+     */
+    public Map<Vertex<T>, Integer> dijkstras(Vertex<T> source) {
+        return get(source).asMap();
+    }
+
+    /**
+     * Drops every cached result.
+     */
+    public synchronized void invalidate() {
+        if (!entries.isEmpty()) {
+            entries.clear();
+            invalidations++;
+        }
+    }
+
+    /**
+     * Gets the number of sources with a cached result for the current
+     * version.
+     *
+     * @return the number of entries
+     */
+    public synchronized int size() {
+        checkVersion();
+        return entries.size();
+    }
+
+    /**
+     * Gets the most sources results are kept for.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the number of lookups answered from the cache.
+     *
+     * @return the number of hits
+     */
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of lookups that had to search the graph.
+     *
+     * @return the number of misses
+     */
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * Gets the share of lookups answered from the cache.
+     *
+     * @return the hit rate in [0, 1], or 0 before the first lookup
+     */
+    public synchronized double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Gets the number of results dropped to make room for newer ones.
+     *
+     * @return the number of evictions
+     */
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    /**
+     * Gets the number of times every cached result was dropped at once,
+     * because the graph changed or {@link #invalidate()} was called.
+     *
+     * @return the number of invalidations
+     */
+    public synchronized long getInvalidationCount() {
+        return invalidations;
+    }
+
+    /**
+     * Drops every cached result and the compact copy if the graph changed
+     * since the last lookup.
+     */
+    private void checkVersion() {
+        if (mutable != null && mutable.getVersion() != version) {
+            version = mutable.getVersion();
+            graph = null;
+            invalidate();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The result of a single-source shortest path search over a CompactGraph.
+ * Distances and shortest path tree parents are kept in primitive arrays
+ * indexed by vertex id, and {@link #asMap()} gives the familiar
+ * {@code Map<Vertex<T>, Integer>} view of the distances without copying
+ * them.
+ */
+public class ShortestPaths<T> {
+
+    /**
+     * Distance given to vertices that are not reachable from the source.
+     */
+    public static final long UNREACHABLE = Long.MAX_VALUE;
+
+    /**
+     * Parent given to the source and to unreachable vertices.
+     */
+    public static final int NO_PARENT = -1;
+
+    private final CompactGraph<T> graph;
+    private final int source;
+    private final long[] distances;
+    private final int[] parents;
+
+    /**
+     * Wraps the arrays of a finished search. The arrays are not copied.
+     *
+     * @param graph     the graph that was searched
+     * @param source    the id of the source vertex
+     * @param distances the distance of every vertex from the source
+     * @param parents   the shortest path tree parent of every vertex
+     */
+    ShortestPaths(CompactGraph<T> graph, int source, long[] distances,
+        int[] parents) {
+        this.graph = graph;
+        this.source = source;
+        this.distances = distances;
+        this.parents = parents;
+    }
+
+    /**
+     * Gets the graph that was searched.
+     *
+     * @return the graph
+     */
+    public CompactGraph<T> getGraph() {
+        return graph;
+    }
+
+    /**
+     * Gets the id of the source vertex.
+     *
+     * @return the source id
+     */
+    public int getSource() {
+        return source;
+    }
+
+    /**
+     * Gets the distance from the source to a vertex.
+     *
+     * @param id the id of the vertex
+     * @return the distance, or {@link #UNREACHABLE}
+     */
+    public long getDistance(int id) {
+        return distances[id];
+    }
+
+    /**
+     * Gets the parent of a vertex in the shortest path tree.
+     *
+     * @param id the id of the vertex
+     * @return the id of the parent, or {@link #NO_PARENT}
+     */
+    public int getParent(int id) {
+        return parents[id];
+    }
+
+    /**
+     * Gets the distance of every vertex, indexed by id. Results may be
+     * shared, for example by a {@link ShortestPathCache}, so this is a copy;
+     * use {@link #getDistance(int)} to read single distances without one.
+     *
+     * @return a new array of the distances
+     */
+    public long[] getDistances() {
+        return distances.clone();
+    }
+
+    /**
+     * Gets the vertices of a shortest path from the source to a target.
+     *
+     * @param target the vertex to find the path to
+     * @return the vertices of the path from source to target, or an empty
+     * list if the target is unreachable
+     * @throws IllegalArgumentException if the target is not in the graph
+     */
+    public List<Vertex<T>> getPath(Vertex<T> target) {
+        int id = graph.getId(target);
+        if (id < 0) {
+            throw new IllegalArgumentException("The graph doesn't contain the target.");
+        }
+        if (distances[id] == UNREACHABLE) {
+            return Collections.emptyList();
+        }
+        List<Vertex<T>> path = new ArrayList<>();
+        for (int v = id; v != NO_PARENT; v = parents[v]) {
+            path.add(graph.getVertex(v));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Gets a read-only map view of the distances, keyed by vertex. Every
+     * vertex of the graph is a key, and unreachable vertices map to
+     * Integer.MAX_VALUE.
+     *
+     * @return the distance map view
+     * @throws ArithmeticException from the view if a distance does not fit in
+     *                             an int
+     */
+    public Map<Vertex<T>, Integer> asMap() {
+        return new DistanceMap();
+    }
+
+    /**
+     * Converts a stored distance to the Integer of the map view.
+     *
+     * @param id the id of the vertex
+     * @return the distance as an int
+     */
+    private Integer mapDistance(int id) {
+        long d = distances[id];
+        return d == UNREACHABLE ? Integer.MAX_VALUE : Math.toIntExact(d);
+    }
+
+    /**
+     * The map view of the distances.
+     */
+    private final class DistanceMap extends AbstractMap<Vertex<T>, Integer> {
+
+        @Override
+        public int size() {
+            return distances.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean containsKey(Object key) {
+            return key instanceof Vertex && graph.getId((Vertex<T>) key) >= 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Integer get(Object key) {
+            if (!(key instanceof Vertex)) {
+                return null;
+            }
+            int id = graph.getId((Vertex<T>) key);
+            return id < 0 ? null : mapDistance(id);
+        }
+
+        @Override
+        public Set<Entry<Vertex<T>, Integer>> entrySet() {
+            return new AbstractSet<Entry<Vertex<T>, Integer>>() {
+                @Override
+                public int size() {
+                    return distances.length;
+                }
+
+                @Override
+                public Iterator<Entry<Vertex<T>, Integer>> iterator() {
+                    return new Iterator<Entry<Vertex<T>, Integer>>() {
+                        private int next;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < distances.length;
+                        }
+
+                        @Override
+                        public Entry<Vertex<T>, Integer> next() {
+                            if (next >= distances.length) {
+                                throw new NoSuchElementException();
+                            }
+                            int id = next++;
+                            return new SimpleImmutableEntry<>(
+                                graph.getVertex(id), mapDistance(id));
+                        }
+                    };
+                }
+            };
+        }
+    }
+}
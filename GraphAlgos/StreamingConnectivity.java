@@ -0,0 +1,184 @@
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Incremental connected components over a stream of edges. Edges are
+ * consumed one at a time and only their end vertices are remembered, in a
+ * {@link DisjointSet}, so the edge feed can be far larger than memory as
+ * long as the vertices fit. Edges are treated as undirected.
+ *
+ * connected, componentOf and componentCount can be asked at any point
+ * between edges and run in nearly constant time. Vertices that no edge has
+ * touched yet are their own singleton component but are not counted. Finds
+ * shorten paths as they go, and compaction points every vertex straight at
+ * its root, either on demand or every fixed number of edges.
+ *
+ * This class is not thread-safe.
+ *
+ * @param <T> the generic typing of the data
+ */
+public class StreamingConnectivity<T> {
+
+    private final DisjointSet<Vertex<T>> sets = new DisjointSet<>();
+    private final long compactionInterval;
+    private long edgeCount;
+
+    /**
+     * Creates an empty partition that is only compacted on demand.
+     */
+    public StreamingConnectivity() {
+        this(0);
+    }
+
+    /**
+     * Creates an empty partition that is compacted after every given number
+     * of edges.
+     *
+     * @param compactionInterval the number of edges between compactions, or
+     *                           0 to only compact on demand
+     * @throws IllegalArgumentException if the interval is negative
+     */
+    public StreamingConnectivity(long compactionInterval) {
+        if (compactionInterval < 0) {
+            throw new IllegalArgumentException("The compaction interval cannot be negative.");
+        }
+        this.compactionInterval = compactionInterval;
+    }
+
+    /**
+     * Consumes one edge, joining the components of its ends.
+     *
+     * @param edge the edge to consume
+     * @return true if the edge joined two components
+     * @throws IllegalArgumentException if the edge is null
+     */
+    public boolean add(Edge<T> edge) {
+        if (edge == null) {
+            throw new IllegalArgumentException("The edge is null");
+        }
+        int before = sets.getComponentCount();
+        sets.union(edge.getU(), edge.getV());
+        edgeCount++;
+        if (compactionInterval > 0 && edgeCount % compactionInterval == 0) {
+            sets.compact();
+        }
+        return sets.getComponentCount() < before;
+    }
+
+    /**
+     * Consumes every remaining edge of an iterator.
+     *
+     * @param edges the edges to consume
+     * @return the number of edges consumed
+     * @throws IllegalArgumentException if the iterator or an edge is null
+     */
+    public long addAll(Iterator<Edge<T>> edges) {
+        if (edges == null) {
+            throw new IllegalArgumentException("The iterator is null");
+        }
+        long consumed = 0;
+        while (edges.hasNext()) {
+            add(edges.next());
+            consumed++;
+        }
+        return consumed;
+    }
+
+    /**
+     * Consumes every edge of a stream in encounter order. The stream must be
+     * finite; use {@link #addAll(Iterator)} with a bounded iterator or
+     * {@link #add(Edge)} to take edges from an endless one in batches.
+     *
+     * @param edges the edges to consume
+     * @return the number of edges consumed
+     * @throws IllegalArgumentException if the stream or an edge is null
+     */
+    public long addAll(Stream<Edge<T>> edges) {
+        if (edges == null) {
+            throw new IllegalArgumentException("The stream is null");
+        }
+        return addAll(edges.sequential().iterator());
+    }
+
+    /**
+     * Checks if two vertices are connected by the edges consumed so far.
+     *
+     * @param u the first vertex
+     * @param v the second vertex
+     * @return true if they are in the same component
+     * @throws IllegalArgumentException if either vertex is null
+     */
+    public boolean connected(Vertex<T> u, Vertex<T> v) {
+        if (u == null || v == null) {
+            throw new IllegalArgumentException("A vertex is null");
+        }
+        return componentOf(u).equals(componentOf(v));
+    }
+
+    /**
+     * Gets the representative of the component of a vertex. Two vertices
+     * are connected exactly when their representatives are equal, until the
+     * next edge is consumed.
+     *
+     * @param v the vertex
+     * @return the representative of its component, or v itself if no edge
+     * has touched it
+     * @throws IllegalArgumentException if the vertex is null
+     */
+    public Vertex<T> componentOf(Vertex<T> v) {
+        if (v == null) {
+            throw new IllegalArgumentException("The vertex is null");
+        }
+        return sets.contains(v) ? sets.find(v) : v;
+    }
+
+    /**
+     * Gets the number of components among the vertices seen so far.
+     *
+     * @return the component count
+     */
+    public int componentCount() {
+        return sets.getComponentCount();
+    }
+
+    /**
+     * Gets the number of vertices seen so far.
+     *
+     * @return the vertex count
+     */
+    public int getVertexCount() {
+        return sets.size();
+    }
+
+    /**
+     * Gets the number of edges consumed so far.
+     *
+     * @return the edge count
+     */
+    public long getEdgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Points every vertex seen so far directly at the root of its component.
+     */
+    public void compact() {
+        sets.compact();
+    }
+
+    /**
+     * Copies the current partition. Later edges do not change the copy.
+     *
+     * @return an unmodifiable map from the representative of every
+     * component to the vertices in it
+     */
+    public Map<Vertex<T>, Set<Vertex<T>>> snapshot() {
+        Map<Vertex<T>, Set<Vertex<T>>> snapshot = sets.getComponents();
+        snapshot.replaceAll((root, members) ->
+            Collections.unmodifiableSet(members));
+        return Collections.unmodifiableMap(snapshot);
+    }
+}
@@ -0,0 +1,630 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The strongly connected components of a CompactGraph: the component id of
+ * every vertex id and the condensation, the DAG with one vertex per
+ * component. Components are numbered in topological order, so every edge
+ * between two components goes from a lower id to a higher id.
+ *
+ * {@link #of(CompactGraph)} runs Tarjan's algorithm with an explicit call
+ * stack, so deep graphs cannot overflow the thread stack. For very large
+ * graphs {@link #of(CompactGraph, ForkJoinPool)} first trims every vertex
+ * without in-edges or without out-edges, which is its own component, and
+ * then runs the forward-backward algorithm: the vertices reachable both from
+ * and to a pivot form its component, and the vertices reached only forward,
+ * only backward or not at all can hold no common component, so the three
+ * sets are split further in parallel, each task looping on the largest.
+ * Sets of at most {@link #GRAIN} vertices are finished with Tarjan's
+ * algorithm. Each set is marked with a color of its own, so the tasks share
+ * the per-vertex arrays without ever writing the same entry.
+ *
+ * @param <T> the generic typing of the data
+ */
+public final class StronglyConnectedComponents<T> {
+
+    /**
+     * Vertex sets at most this large are finished by a single task.
+     */
+    private static final int GRAIN = 1 << 12;
+
+    /**
+     * The color of vertices whose component is known.
+     */
+    private static final int DONE = -1;
+
+    private final CompactGraph<T> graph;
+    private final int[] components;
+    private final int[] memberOffsets;
+    private final int[] members;
+    private final CompactGraph<Integer> condensation;
+
+    /**
+     * Groups the vertices of a graph by component and builds the
+     * condensation.
+     *
+     * @param graph      the graph the components are of
+     * @param components the component id of every vertex, in topological
+     *                   order
+     * @param count      the number of components
+     */
+    private StronglyConnectedComponents(CompactGraph<T> graph,
+        int[] components, int count) {
+        this.graph = graph;
+        this.components = components;
+        int[][] groups = group(components, count);
+        memberOffsets = groups[0];
+        members = groups[1];
+        int[][] dag = condense(graph, components, memberOffsets, members);
+        List<Vertex<Integer>> vertices = new ArrayList<>(count);
+        for (int c = 0; c < count; c++) {
+            vertices.add(new Vertex<>(c));
+        }
+        condensation = new CompactGraph<>(vertices, dag[0], dag[1], dag[2]);
+    }
+
+    /**
+     * Finds the strongly connected components of a graph with Tarjan's
+     * algorithm.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the graph to split
+     * @return the components of the graph
+     * @throws IllegalArgumentException if the graph is null
+     */
+    public static <T> StronglyConnectedComponents<T> of(
+        CompactGraph<T> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("The graph is null");
+        }
+        Search search = new Search(graph);
+        int vertexCount = graph.getVertexCount();
+        int[] all = new int[vertexCount];
+        for (int v = 0; v < vertexCount; v++) {
+            all[v] = v;
+        }
+        search.tarjan(all, 0);
+        int count = search.nextComponent.get();
+        int[] components = search.components;
+        for (int v = 0; v < vertexCount; v++) {
+            components[v] = count - 1 - components[v];
+        }
+        return new StronglyConnectedComponents<>(graph, components, count);
+    }
+
+    /**
+     * Finds the strongly connected components of a graph with the trimmed
+     * forward-backward algorithm. The components are the same as those of
+     * {@link #of(CompactGraph)}, though topologically unordered components
+     * may be numbered differently.
+     *
+     * @param <T>   the generic typing of the data
+     * @param graph the graph to split
+     * @param pool  the pool to split the vertex sets on
+     * @return the components of the graph
+     * @throws IllegalArgumentException if any input is null
+     */
+    public static <T> StronglyConnectedComponents<T> of(CompactGraph<T> graph,
+        ForkJoinPool pool) {
+        if (graph == null || pool == null) {
+            throw new IllegalArgumentException("An input is null");
+        }
+        Search search = new Search(graph);
+        int[] rest = search.trim();
+        if (rest.length > 0) {
+            pool.invoke(search.new Split(rest, 0));
+        }
+        int count = search.nextComponent.get();
+        int[] components = search.components;
+        int[][] groups = group(components, count);
+        int[] rank = topologicalRank(condense(graph, components, groups[0],
+            groups[1]), count);
+        for (int v = 0; v < components.length; v++) {
+            components[v] = rank[components[v]];
+        }
+        return new StronglyConnectedComponents<>(graph, components, count);
+    }
+
+    /**
+     * Gets the graph the components are of.
+     *
+     * @return the graph
+     */
+    public CompactGraph<T> getGraph() {
+        return graph;
+    }
+
+    /**
+     * Gets the number of strongly connected components.
+     *
+     * @return the number of components
+     */
+    public int getComponentCount() {
+        return memberOffsets.length - 1;
+    }
+
+    /**
+     * Gets the component id of every vertex.
+     *
+     * @return the component ids indexed by vertex id, of length V
+     */
+    public int[] getComponents() {
+        return components;
+    }
+
+    /**
+     * Gets the component id of a vertex.
+     *
+     * @param id the id of the vertex
+     * @return the id of its component
+     */
+    public int getComponent(int id) {
+        return components[id];
+    }
+
+    /**
+     * Gets the number of vertices in a component.
+     *
+     * @param component the id of the component
+     * @return the size of the component
+     */
+    public int getComponentSize(int component) {
+        return memberOffsets[component + 1] - memberOffsets[component];
+    }
+
+    /**
+     * Gets the vertices of a component.
+     *
+     * @param component the id of the component
+     * @return the vertices of the component, in id order
+     * @throws IndexOutOfBoundsException if the component id is not in
+     *                                   [0, getComponentCount())
+     */
+    public List<Vertex<T>> getMembers(int component) {
+        if (component < 0 || component >= getComponentCount()) {
+            throw new IndexOutOfBoundsException("Component " + component + " is out of range.");
+        }
+        List<Vertex<T>> result = new ArrayList<>(getComponentSize(component));
+        for (int i = memberOffsets[component]; i < memberOffsets[component + 1];
+            i++) {
+            result.add(graph.getVertex(members[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Gets the condensation of the graph. Its vertex with id c holds the
+     * data c, it has one edge from every component to every other component
+     * it has edges into, weighted with the lightest of those edges, and it
+     * has no cycles.
+     *
+     * @return the condensation
+     */
+    public CompactGraph<Integer> getCondensation() {
+        return condensation;
+    }
+
+    /**
+     * Groups the vertex ids by component with a counting sort.
+     *
+     * @param components the component id of every vertex
+     * @param count      the number of components
+     * @return where the vertices of each component start, of length
+     * count + 1, and the vertex ids grouped by component
+     */
+    private static int[][] group(int[] components, int count) {
+        int[] memberOffsets = new int[count + 1];
+        for (int c : components) {
+            memberOffsets[c + 1]++;
+        }
+        for (int c = 0; c < count; c++) {
+            memberOffsets[c + 1] += memberOffsets[c];
+        }
+        int[] members = new int[components.length];
+        int[] cursor = Arrays.copyOf(memberOffsets, count);
+        for (int v = 0; v < components.length; v++) {
+            members[cursor[components[v]]++] = v;
+        }
+        return new int[][] {memberOffsets, members};
+    }
+
+    /**
+     * Builds the edges of the condensation.
+     *
+     * @param graph         the graph the components are of
+     * @param components    the component id of every vertex
+     * @param memberOffsets where the vertices of each component start in
+     *                      members
+     * @param members       the vertex ids grouped by component
+     * @return the offsets, targets and weights of the condensation
+     */
+    private static int[][] condense(CompactGraph<?> graph, int[] components,
+        int[] memberOffsets, int[] members) {
+        int count = memberOffsets.length - 1;
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getWeights();
+        int[] dagOffsets = new int[count + 1];
+        int[] dagTargets = new int[16];
+        int[] dagWeights = new int[16];
+        int[] seen = new int[count];
+        int[] position = new int[count];
+        Arrays.fill(seen, -1);
+        int edges = 0;
+        for (int c = 0; c < count; c++) {
+            for (int i = memberOffsets[c]; i < memberOffsets[c + 1]; i++) {
+                int u = members[i];
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int d = components[targets[e]];
+                    if (d == c) {
+                        continue;
+                    }
+                    if (seen[d] == c) {
+                        dagWeights[position[d]] = Math.min(
+                            dagWeights[position[d]], weights[e]);
+                        continue;
+                    }
+                    if (edges == dagTargets.length) {
+                        dagTargets = Arrays.copyOf(dagTargets, edges * 2);
+                        dagWeights = Arrays.copyOf(dagWeights, edges * 2);
+                    }
+                    seen[d] = c;
+                    position[d] = edges;
+                    dagTargets[edges] = d;
+                    dagWeights[edges] = weights[e];
+                    edges++;
+                }
+            }
+            dagOffsets[c + 1] = edges;
+        }
+        return new int[][] {dagOffsets, Arrays.copyOf(dagTargets, edges),
+            Arrays.copyOf(dagWeights, edges)};
+    }
+
+    /**
+     * Ranks the vertices of a DAG in topological order with Kahn's
+     * algorithm.
+     *
+     * @param dag   the offsets, targets and weights of the DAG
+     * @param count the number of vertices of the DAG
+     * @return the position of every vertex in a topological order
+     */
+    private static int[] topologicalRank(int[][] dag, int count) {
+        int[] offsets = dag[0];
+        int[] targets = dag[1];
+        int[] inDegree = new int[count];
+        for (int target : targets) {
+            inDegree[target]++;
+        }
+        int[] queue = new int[count];
+        int tail = 0;
+        for (int c = 0; c < count; c++) {
+            if (inDegree[c] == 0) {
+                queue[tail++] = c;
+            }
+        }
+        int[] rank = new int[count];
+        for (int head = 0; head < tail; head++) {
+            int c = queue[head];
+            rank[c] = head;
+            for (int e = offsets[c]; e < offsets[c + 1]; e++) {
+                if (--inDegree[targets[e]] == 0) {
+                    queue[tail++] = targets[e];
+                }
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * The per-vertex state of one run. Every vertex belongs to the vertex
+     * set whose color it has, and only the task working on a set writes the
+     * entries of its vertices.
+     */
+    private static final class Search {
+
+        private final int[] offsets;
+        private final int[] targets;
+        private final int[] reverseOffsets;
+        private final int[] reverseTargets;
+        private final int[] colors;
+        private final int[] components;
+        private final int[] index;
+        private final int[] low;
+        private final boolean[] onStack;
+        private final AtomicInteger nextColor = new AtomicInteger();
+        private final AtomicInteger nextComponent = new AtomicInteger();
+
+        /**
+         * Creates the state of a run with every vertex colored 0.
+         *
+         * @param graph the graph to split
+         */
+        Search(CompactGraph<?> graph) {
+            int vertexCount = graph.getVertexCount();
+            offsets = graph.getOffsets();
+            targets = graph.getTargets();
+            CompactGraph<?> reverse = graph.transpose();
+            reverseOffsets = reverse.getOffsets();
+            reverseTargets = reverse.getTargets();
+            colors = new int[vertexCount];
+            components = new int[vertexCount];
+            index = new int[vertexCount];
+            low = new int[vertexCount];
+            onStack = new boolean[vertexCount];
+            Arrays.fill(index, -1);
+            nextColor.set(1);
+        }
+
+        /**
+         * Repeatedly gives every vertex without in-edges or without
+         * out-edges from the remaining vertices a component of its own.
+         *
+         * @return the remaining vertices, all colored 0
+         */
+        int[] trim() {
+            int vertexCount = colors.length;
+            int[] inDegree = new int[vertexCount];
+            int[] outDegree = new int[vertexCount];
+            int[] queue = new int[vertexCount];
+            int tail = 0;
+            for (int v = 0; v < vertexCount; v++) {
+                inDegree[v] = reverseOffsets[v + 1] - reverseOffsets[v];
+                outDegree[v] = offsets[v + 1] - offsets[v];
+                if (inDegree[v] == 0 || outDegree[v] == 0) {
+                    colors[v] = DONE;
+                    queue[tail++] = v;
+                }
+            }
+            for (int head = 0; head < tail; head++) {
+                int v = queue[head];
+                components[v] = nextComponent.getAndIncrement();
+                for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                    int w = targets[e];
+                    if (--inDegree[w] == 0 && colors[w] != DONE) {
+                        colors[w] = DONE;
+                        queue[tail++] = w;
+                    }
+                }
+                for (int e = reverseOffsets[v]; e < reverseOffsets[v + 1];
+                    e++) {
+                    int w = reverseTargets[e];
+                    if (--outDegree[w] == 0 && colors[w] != DONE) {
+                        colors[w] = DONE;
+                        queue[tail++] = w;
+                    }
+                }
+            }
+            int[] rest = new int[vertexCount - tail];
+            int r = 0;
+            for (int v = 0; v < vertexCount; v++) {
+                if (colors[v] != DONE) {
+                    rest[r++] = v;
+                }
+            }
+            return rest;
+        }
+
+        /**
+         * Runs Tarjan's algorithm on the vertices of one color, following
+         * only edges between them.
+         *
+         * @param vertices the vertices to search from
+         * @param color    the color of the vertex set
+         */
+        void tarjan(int[] vertices, int color) {
+            int[] stack = new int[vertices.length];
+            int[] callVertex = new int[vertices.length];
+            int[] callEdge = new int[vertices.length];
+            int counter = 0;
+            int sp = 0;
+            for (int root : vertices) {
+                if (colors[root] != color || index[root] >= 0) {
+                    continue;
+                }
+                index[root] = counter;
+                low[root] = counter++;
+                stack[sp++] = root;
+                onStack[root] = true;
+                callVertex[0] = root;
+                callEdge[0] = offsets[root];
+                int cp = 1;
+                while (cp > 0) {
+                    int u = callVertex[cp - 1];
+                    int e = callEdge[cp - 1];
+                    if (e < offsets[u + 1]) {
+                        callEdge[cp - 1] = e + 1;
+                        int w = targets[e];
+                        if (colors[w] != color) {
+                            continue;
+                        }
+                        if (index[w] < 0) {
+                            index[w] = counter;
+                            low[w] = counter++;
+                            stack[sp++] = w;
+                            onStack[w] = true;
+                            callVertex[cp] = w;
+                            callEdge[cp] = offsets[w];
+                            cp++;
+                        } else if (onStack[w]) {
+                            low[u] = Math.min(low[u], index[w]);
+                        }
+                        continue;
+                    }
+                    cp--;
+                    if (cp > 0) {
+                        int parent = callVertex[cp - 1];
+                        low[parent] = Math.min(low[parent], low[u]);
+                    }
+                    if (low[u] == index[u]) {
+                        int id = nextComponent.getAndIncrement();
+                        int w;
+                        do {
+                            w = stack[--sp];
+                            onStack[w] = false;
+                            components[w] = id;
+                        } while (w != u);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Splits a vertex set into the component of a pivot and the three
+         * sets left around it, repeatedly. The task keeps the largest set
+         * for itself and forks the other two, which hold at most half of
+         * the vertices each, so a chain of many components is split in a
+         * loop and tasks nest at most log V deep.
+         */
+        final class Split extends RecursiveAction {
+
+            private static final long serialVersionUID = 1L;
+
+            private final int[] vertices;
+            private final int color;
+
+            /**
+             * Creates a task over a vertex set.
+             *
+             * @param vertices the vertices of the set
+             * @param color    the color every vertex of the set has
+             */
+            Split(int[] vertices, int color) {
+                this.vertices = vertices;
+                this.color = color;
+            }
+
+            @Override
+            protected void compute() {
+                List<Split> forked = new ArrayList<>();
+                int[] set = vertices;
+                int setColor = color;
+                while (set.length > GRAIN) {
+                    int forward = nextColor.getAndIncrement();
+                    int backward = nextColor.getAndIncrement();
+                    int[][] parts = removePivotComponent(set, setColor,
+                        forward, backward);
+                    int[] partColors = {forward, backward, setColor};
+                    int largest = 0;
+                    for (int i = 1; i < parts.length; i++) {
+                        if (parts[i].length > parts[largest].length) {
+                            largest = i;
+                        }
+                    }
+                    for (int i = 0; i < parts.length; i++) {
+                        if (i != largest && parts[i].length > 0) {
+                            Split split = new Split(parts[i], partColors[i]);
+                            split.fork();
+                            forked.add(split);
+                        }
+                    }
+                    set = parts[largest];
+                    setColor = partColors[largest];
+                }
+                if (set.length > 0) {
+                    tarjan(set, setColor);
+                }
+                for (Split split : forked) {
+                    split.join();
+                }
+            }
+        }
+
+        /**
+         * Gives the component of a pivot of a vertex set an id and recolors
+         * the vertices reached only forward and only backward from it. The
+         * pivot is taken from the middle of the set, so a chain of
+         * components laid out in id order is halved.
+         *
+         * @param set      the vertices of the set
+         * @param color    the color every vertex of the set has
+         * @param forward  the color for vertices reached only forward
+         * @param backward the color for vertices reached only backward
+         * @return the vertices reached only forward, only backward and not
+         * at all, in that order
+         */
+        private int[][] removePivotComponent(int[] set, int color,
+            int forward, int backward) {
+            int pivot = set[set.length / 2];
+            int[] queue = new int[set.length];
+            colors[pivot] = forward;
+            queue[0] = pivot;
+            int tail = 1;
+            for (int head = 0; head < tail; head++) {
+                int u = queue[head];
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int w = targets[e];
+                    if (colors[w] == color) {
+                        colors[w] = forward;
+                        queue[tail++] = w;
+                    }
+                }
+            }
+
+            int id = nextComponent.getAndIncrement();
+            colors[pivot] = DONE;
+            components[pivot] = id;
+            queue[0] = pivot;
+            tail = 1;
+            for (int head = 0; head < tail; head++) {
+                int u = queue[head];
+                for (int e = reverseOffsets[u]; e < reverseOffsets[u + 1];
+                    e++) {
+                    int w = reverseTargets[e];
+                    if (colors[w] == forward) {
+                        colors[w] = DONE;
+                        components[w] = id;
+                        queue[tail++] = w;
+                    } else if (colors[w] == color) {
+                        colors[w] = backward;
+                        queue[tail++] = w;
+                    }
+                }
+            }
+
+            int[] counts = new int[3];
+            for (int v : set) {
+                int part = partOf(colors[v], color, forward, backward);
+                if (part >= 0) {
+                    counts[part]++;
+                }
+            }
+            int[][] parts = {new int[counts[0]], new int[counts[1]],
+                new int[counts[2]]};
+            Arrays.fill(counts, 0);
+            for (int v : set) {
+                int part = partOf(colors[v], color, forward, backward);
+                if (part >= 0) {
+                    parts[part][counts[part]++] = v;
+                }
+            }
+            return parts;
+        }
+
+        /**
+         * Finds which part of a split set a vertex color belongs to.
+         *
+         * @param vertexColor the color of the vertex
+         * @param color       the color of the vertices reached not at all
+         * @param forward     the color of the vertices reached only forward
+         * @param backward    the color of the vertices reached only backward
+         * @return 0, 1 or 2 for forward, backward and the rest, or -1 if the
+         * vertex is in the pivot component
+         */
+        private static int partOf(int vertexColor, int color, int forward,
+            int backward) {
+            if (vertexColor == forward) {
+                return 0;
+            } else if (vertexColor == backward) {
+                return 1;
+            } else if (vertexColor == color) {
+                return 2;
+            }
+            return -1;
+        }
+    }
+}
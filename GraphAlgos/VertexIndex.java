@@ -0,0 +1,164 @@
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A dictionary that gives every distinct vertex a dense int id, in the order
+ * the vertices are first added. Looking up the id of a vertex costs one hash
+ * lookup; looking up the vertex of an id is an array read.
+ *
+ * Graph code hashes vertices once, when it enters an index, and works on
+ * ids from then on, translating back to vertices only in its results. The
+ * index also interns vertices: {@link #intern(Vertex)} hands back the one
+ * stored instance for every equal vertex, so results share objects instead
+ * of holding equal copies.
+ *
+ * An index only grows. It is not thread-safe while it grows, but any number
+ * of threads may read it once it stops.
+ *
+ * @param <T> the generic typing of the data
+ */
+public class VertexIndex<T> {
+
+    private final Map<Vertex<T>, Integer> ids;
+    private Vertex<T>[] vertices;
+    private int size;
+
+    /**
+     * Creates an empty index.
+     */
+    public VertexIndex() {
+        this(16);
+    }
+
+    /**
+     * Creates an empty index with room for the given number of vertices.
+     *
+     * @param capacity the expected number of vertices
+     * @throws IllegalArgumentException if the capacity is negative
+     */
+    @SuppressWarnings("unchecked")
+    public VertexIndex(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative.");
+        }
+        ids = new HashMap<>(Math.max(16, capacity * 4 / 3 + 1));
+        vertices = (Vertex<T>[]) new Vertex<?>[capacity];
+    }
+
+    /**
+     * Creates an index of the given vertices, numbered in iteration order.
+     *
+     * @param vertices the vertices to add
+     * @throws IllegalArgumentException if the vertices or one of them is
+     *                                  null
+     */
+    public VertexIndex(Iterable<Vertex<T>> vertices) {
+        this();
+        if (vertices == null) {
+            throw new IllegalArgumentException("The vertices are null");
+        }
+        for (Vertex<T> vertex : vertices) {
+            add(vertex);
+        }
+    }
+
+    /**
+     * Adds a vertex unless an equal one is already in the index.
+     *
+     * @param vertex the vertex to add
+     * @return the id of the vertex
+     * @throws IllegalArgumentException if the vertex is null
+     */
+    public int add(Vertex<T> vertex) {
+        if (vertex == null) {
+            throw new IllegalArgumentException("The vertex is null");
+        }
+        Integer id = ids.putIfAbsent(vertex, size);
+        if (id != null) {
+            return id;
+        }
+        if (size == vertices.length) {
+            vertices = Arrays.copyOf(vertices, Math.max(16, size * 2));
+        }
+        vertices[size] = vertex;
+        return size++;
+    }
+
+    /**
+     * Gets the stored instance equal to a vertex, adding the vertex if there
+     * is none.
+     *
+     * @param vertex the vertex to intern
+     * @return the stored vertex equal to it
+     * @throws IllegalArgumentException if the vertex is null
+     */
+    public Vertex<T> intern(Vertex<T> vertex) {
+        return vertices[add(vertex)];
+    }
+
+    /**
+     * Gets the id of a vertex.
+     *
+     * @param vertex the vertex to look up
+     * @return the id of the vertex, or -1 if it is not in the index
+     */
+    public int getId(Vertex<T> vertex) {
+        Integer id = ids.get(vertex);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Checks if a vertex is in the index.
+     *
+     * @param vertex the vertex to look for
+     * @return true if an equal vertex has an id
+     */
+    public boolean contains(Vertex<T> vertex) {
+        return ids.containsKey(vertex);
+    }
+
+    /**
+     * Gets the vertex with the given id.
+     *
+     * @param id the id of the vertex
+     * @return the vertex with that id
+     * @throws IndexOutOfBoundsException if the id is not in [0, size)
+     */
+    public Vertex<T> getVertex(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Id " + id + " is out of range.");
+        }
+        return vertices[id];
+    }
+
+    /**
+     * Gets the number of vertices in the index.
+     *
+     * @return the number of ids handed out
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the vertices in id order.
+     *
+     * @return a read-only list view that sees later additions
+     */
+    public List<Vertex<T>> asList() {
+        return new AbstractList<Vertex<T>>() {
+            @Override
+            public Vertex<T> get(int id) {
+                return getVertex(id);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+}
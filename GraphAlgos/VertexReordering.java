@@ -0,0 +1,306 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A relabelling of the vertices of a CompactGraph that puts vertices which
+ * are visited together next to each other in memory, together with the
+ * relabelled graph and the permutation between old and new ids.
+ *
+ * Three layouts are offered. {@link Strategy#REVERSE_CUTHILL_MCKEE} numbers
+ * each weakly connected component breadth first from a low degree vertex,
+ * visiting neighbors in increasing degree order, and then reverses the whole
+ * numbering, which keeps the ids of neighbors close together (a small
+ * bandwidth). {@link Strategy#BFS} numbers vertices in plain breadth first
+ * order. {@link Strategy#DEGREE} sorts vertices by decreasing out-degree, so
+ * the hubs with the most out-edges, whose edge ranges are scanned most, sit
+ * together at the lowest ids. The breadth first layouts follow edges in
+ * both directions.
+ *
+ * The relabelled graph holds the same vertices, so results in terms of
+ * vertices need no translation; results indexed by id are mapped back with
+ * {@link #toOriginalOrder(long[])} and {@link #getOriginalId(int)}. Each
+ * vertex keeps its out-edges in their original order.
+ *
+ * @param <T> the generic typing of the data
+ */
+public final class VertexReordering<T> {
+
+    /**
+     * The layouts a graph can be relabelled with.
+     */
+    public enum Strategy {
+        REVERSE_CUTHILL_MCKEE, BFS, DEGREE
+    }
+
+    private final CompactGraph<T> graph;
+    private final int[] newIds;
+    private final int[] oldIds;
+
+    /**
+     * Wraps a relabelled graph and its permutation.
+     *
+     * @param graph  the relabelled graph
+     * @param newIds the new id of every old id
+     * @param oldIds the old id of every new id
+     */
+    private VertexReordering(CompactGraph<T> graph, int[] newIds,
+        int[] oldIds) {
+        this.graph = graph;
+        this.newIds = newIds;
+        this.oldIds = oldIds;
+    }
+
+    /**
+     * Relabels a graph, building its compact form first.
+     *
+     * @param <T>      the generic typing of the data
+     * @param graph    the graph to relabel
+     * @param strategy the layout to use
+     * @return the relabelled graph and permutation
+     * @throws IllegalArgumentException if any input is null
+     */
+    public static <T> VertexReordering<T> of(Graph<T> graph,
+        Strategy strategy) {
+        if (graph == null) {
+            throw new IllegalArgumentException("An input is null");
+        }
+        return of(new CompactGraph<>(graph), strategy);
+    }
+
+    /**
+     * Relabels a compact graph.
+     *
+     * @param <T>      the generic typing of the data
+     * @param graph    the graph to relabel
+     * @param strategy the layout to use
+     * @return the relabelled graph and permutation
+     * @throws IllegalArgumentException if any input is null
+     */
+    public static <T> VertexReordering<T> of(CompactGraph<T> graph,
+        Strategy strategy) {
+        if (graph == null || strategy == null) {
+            throw new IllegalArgumentException("An input is null");
+        }
+        int[] oldIds;
+        switch (strategy) {
+            case REVERSE_CUTHILL_MCKEE:
+                oldIds = breadthFirstOrder(graph, true);
+                for (int i = 0, j = oldIds.length - 1; i < j; i++, j--) {
+                    int swap = oldIds[i];
+                    oldIds[i] = oldIds[j];
+                    oldIds[j] = swap;
+                }
+                break;
+            case BFS:
+                oldIds = breadthFirstOrder(graph, false);
+                break;
+            default:
+                oldIds = degreeOrder(graph, false);
+                break;
+        }
+        int[] newIds = new int[oldIds.length];
+        for (int i = 0; i < oldIds.length; i++) {
+            newIds[oldIds[i]] = i;
+        }
+        return new VertexReordering<>(relabel(graph, newIds, oldIds), newIds,
+            oldIds);
+    }
+
+    /**
+     * Gets the relabelled graph.
+     *
+     * @return the graph with the new ids
+     */
+    public CompactGraph<T> getGraph() {
+        return graph;
+    }
+
+    /**
+     * Gets the new id of a vertex.
+     *
+     * @param originalId the id of the vertex in the original graph
+     * @return its id in the relabelled graph
+     */
+    public int getNewId(int originalId) {
+        return newIds[originalId];
+    }
+
+    /**
+     * Gets the original id of a vertex.
+     *
+     * @param newId the id of the vertex in the relabelled graph
+     * @return its id in the original graph
+     */
+    public int getOriginalId(int newId) {
+        return oldIds[newId];
+    }
+
+    /**
+     * Maps a result indexed by new id back to original ids.
+     *
+     * @param byNewId the values indexed by new id
+     * @return a new array of the same values indexed by original id
+     * @throws IllegalArgumentException if the array is not one per vertex
+     */
+    public long[] toOriginalOrder(long[] byNewId) {
+        if (byNewId == null || byNewId.length != oldIds.length) {
+            throw new IllegalArgumentException("The array must hold one value per vertex.");
+        }
+        long[] byOldId = new long[byNewId.length];
+        for (int i = 0; i < byNewId.length; i++) {
+            byOldId[oldIds[i]] = byNewId[i];
+        }
+        return byOldId;
+    }
+
+    /**
+     * Maps a result indexed by new id back to original ids.
+     *
+     * @param byNewId the values indexed by new id
+     * @return a new array of the same values indexed by original id
+     * @throws IllegalArgumentException if the array is not one per vertex
+     */
+    public int[] toOriginalOrder(int[] byNewId) {
+        if (byNewId == null || byNewId.length != oldIds.length) {
+            throw new IllegalArgumentException("The array must hold one value per vertex.");
+        }
+        int[] byOldId = new int[byNewId.length];
+        for (int i = 0; i < byNewId.length; i++) {
+            byOldId[oldIds[i]] = byNewId[i];
+        }
+        return byOldId;
+    }
+
+    /**
+     * Orders the vertices breadth first over edges in both directions,
+     * starting each weakly connected component from its unvisited vertex of
+     * lowest id, or of lowest degree when ordering by degree.
+     *
+     * @param graph      the graph to order
+     * @param byDegree   whether to start each component from its vertex of
+     *                   lowest degree and visit the neighbors of each vertex
+     *                   in increasing degree order, as Cuthill-McKee does,
+     *                   rather than in id and edge order
+     * @return the old ids in visiting order
+     */
+    private static int[] breadthFirstOrder(CompactGraph<?> graph,
+        boolean byDegree) {
+        int vertexCount = graph.getVertexCount();
+        CompactGraph<?> reverse = graph.transpose();
+        int[] degree = new int[vertexCount];
+        for (int v = 0; v < vertexCount; v++) {
+            degree[v] = graph.getDegree(v) + reverse.getDegree(v);
+        }
+        int[] starts = byDegree ? degreeOrder(graph, true) : null;
+        CompactGraph<?>[] sides = {graph, reverse};
+        boolean[] visited = new boolean[vertexCount];
+        int[] order = new int[vertexCount];
+        long[] neighbors = new long[16];
+        int head = 0;
+        int tail = 0;
+        for (int s = 0; s < vertexCount; s++) {
+            int start = byDegree ? starts[s] : s;
+            if (visited[start]) {
+                continue;
+            }
+            visited[start] = true;
+            order[tail++] = start;
+            while (head < tail) {
+                int curr = order[head++];
+                int found = 0;
+                for (CompactGraph<?> side : sides) {
+                    int[] offsets = side.getOffsets();
+                    int[] targets = side.getTargets();
+                    for (int e = offsets[curr]; e < offsets[curr + 1]; e++) {
+                        int next = targets[e];
+                        if (!visited[next]) {
+                            visited[next] = true;
+                            if (found == neighbors.length) {
+                                neighbors = Arrays.copyOf(neighbors,
+                                    found * 2);
+                            }
+                            neighbors[found++] = (long) degree[next] << 32
+                                | next;
+                        }
+                    }
+                }
+                if (byDegree) {
+                    Arrays.sort(neighbors, 0, found);
+                }
+                for (int i = 0; i < found; i++) {
+                    order[tail++] = (int) neighbors[i];
+                }
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Orders the vertices by degree with a counting sort, ties by id.
+     *
+     * @param graph     the graph to order
+     * @param ascending whether to put low degrees first; the degree counts
+     *                  edges in both directions if true and out-edges only
+     *                  if false
+     * @return the old ids in degree order
+     */
+    private static int[] degreeOrder(CompactGraph<?> graph,
+        boolean ascending) {
+        int vertexCount = graph.getVertexCount();
+        CompactGraph<?> reverse = ascending ? graph.transpose() : null;
+        int[] degree = new int[vertexCount];
+        int maxDegree = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            degree[v] = graph.getDegree(v)
+                + (ascending ? reverse.getDegree(v) : 0);
+            maxDegree = Math.max(maxDegree, degree[v]);
+        }
+        int[] counts = new int[maxDegree + 2];
+        for (int v = 0; v < vertexCount; v++) {
+            counts[(ascending ? degree[v] : maxDegree - degree[v]) + 1]++;
+        }
+        for (int d = 0; d <= maxDegree; d++) {
+            counts[d + 1] += counts[d];
+        }
+        int[] order = new int[vertexCount];
+        for (int v = 0; v < vertexCount; v++) {
+            order[counts[ascending ? degree[v] : maxDegree - degree[v]]++] = v;
+        }
+        return order;
+    }
+
+    /**
+     * Builds the graph with every vertex moved to its new id.
+     *
+     * @param <T>    the generic typing of the data
+     * @param graph  the graph to relabel
+     * @param newIds the new id of every old id
+     * @param oldIds the old id of every new id
+     * @return the relabelled graph
+     */
+    private static <T> CompactGraph<T> relabel(CompactGraph<T> graph,
+        int[] newIds, int[] oldIds) {
+        int vertexCount = graph.getVertexCount();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getWeights();
+        int[] newOffsets = new int[vertexCount + 1];
+        int[] newTargets = new int[targets.length];
+        int[] newWeights = new int[weights.length];
+        List<Vertex<T>> vertices = new ArrayList<>(vertexCount);
+        for (int v = 0; v < vertexCount; v++) {
+            int old = oldIds[v];
+            vertices.add(graph.getVertex(old));
+            int e = newOffsets[v];
+            for (int f = offsets[old]; f < offsets[old + 1]; f++) {
+                newTargets[e] = newIds[targets[f]];
+                newWeights[e] = weights[f];
+                e++;
+            }
+            newOffsets[v + 1] = e;
+        }
+        return new CompactGraph<>(vertices, newOffsets, newTargets,
+            newWeights);
+    }
+}